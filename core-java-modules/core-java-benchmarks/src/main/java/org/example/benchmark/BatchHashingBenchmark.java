@@ -0,0 +1,67 @@
+package org.example.benchmark;
+
+import org.example.hash.BatchHashing;
+import org.example.hash.DigestBatch;
+import org.example.hash.SHA256Hashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.hash.DigestAlgorithms.SHA_256;
+
+/**
+ * 逐条调用 SHA256Hashing 与 {@link BatchHashing} 批量计算的对比，每次操作处理整个批次。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchHashingBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int batchSize;
+
+    private List<String> ids;
+
+    @Setup
+    public void setUp() {
+        ids = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            ids.add("user-" + i + "@example.com");
+        }
+    }
+
+    @Benchmark
+    public void perCallHex(Blackhole blackhole) throws NoSuchAlgorithmException {
+        for (String id : ids) {
+            blackhole.consume(SHA256Hashing.HashWithJavaMessageDigest(id));
+        }
+    }
+
+    @Benchmark
+    public DigestBatch batch() throws NoSuchAlgorithmException {
+        return BatchHashing.hashAll(ids, SHA_256);
+    }
+
+    @Benchmark
+    public DigestBatch batchParallel() throws NoSuchAlgorithmException {
+        return BatchHashing.hashAll(ids, SHA_256, true);
+    }
+
+}
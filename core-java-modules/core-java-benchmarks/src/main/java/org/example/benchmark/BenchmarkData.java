@@ -0,0 +1,38 @@
+package org.example.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试使用的可复现输入数据。
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 0x5EEDL;
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 生成指定长度的 ASCII 字符串，UTF-8 编码后的字节数与字符数相同。
+     */
+    static String asciiString(int length) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+
+    static byte[] bytes(int length) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) random.nextInt(256);
+        }
+        return bytes;
+    }
+}
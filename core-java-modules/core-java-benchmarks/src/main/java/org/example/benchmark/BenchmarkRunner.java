@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试入口：依次以 1, 2, 4 ... N（CPU 核数）个线程运行匹配的基准，
+ * 同时启用 gc profiler，每种线程数的结果以 JSON 写入单独文件，便于跟踪回归。
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar [包含的基准正则] [结果目录]
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE = HashingBenchmark.class.getSimpleName();
+
+    private static final String DEFAULT_RESULT_DIR = "jmh-results";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+        Path resultDir = Paths.get(args.length > 1 ? args[1] : DEFAULT_RESULT_DIR);
+        Files.createDirectories(resultDir);
+
+        for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir.resolve("jmh-" + include.replaceAll("\\W", "_") + "-t" + threads + ".json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    /**
+     * 1 到 cores 之间的 2 的幂，最后总是包含 cores 本身。
+     */
+    static List<Integer> threadCounts(int cores) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads <<= 1) {
+            counts.add(threads);
+        }
+        counts.add(cores);
+        return counts;
+    }
+}
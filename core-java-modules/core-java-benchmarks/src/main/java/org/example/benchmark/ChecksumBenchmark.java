@@ -0,0 +1,91 @@
+package org.example.benchmark;
+
+import org.example.check.ChecksumAlgorithm;
+import org.example.check.ChecksumUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 {@link ChecksumAlgorithm} 中各算法在不同数据来源上的吞吐量。
+ * 结果以每秒操作数给出，乘以 size 即为字节吞吐量。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+
+    @Param({"CRC32", "CRC32C", "ADLER32", "XXHASH64"})
+    public ChecksumAlgorithm algorithm;
+
+    /**
+     * 输入长度（字节），从 64 B 到 16 MB。
+     */
+    @Param({"64", "4096", "1048576", "16777216"})
+    public int size;
+
+    private byte[] bytes;
+
+    private ByteBuffer direct;
+
+    private Path file;
+
+    private FileChannel channel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        bytes = BenchmarkData.bytes(size);
+        direct = ByteBuffer.allocateDirect(size);
+        direct.put(bytes).flip();
+        file = Files.createTempFile("checksum-benchmark", ".bin");
+        Files.write(file, bytes);
+        channel = FileChannel.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long byteArray() {
+        return ChecksumUtils.getChecksum(algorithm, bytes);
+    }
+
+    @Benchmark
+    public long directBuffer() {
+        return ChecksumUtils.getChecksum(algorithm, direct);
+    }
+
+    @Benchmark
+    public long inputStream() throws IOException {
+        return ChecksumUtils.getChecksum(algorithm, new ByteArrayInputStream(bytes), 64 * 1024);
+    }
+
+    @Benchmark
+    public long fileChannel() throws IOException {
+        return ChecksumUtils.getChecksum(algorithm, channel);
+    }
+}
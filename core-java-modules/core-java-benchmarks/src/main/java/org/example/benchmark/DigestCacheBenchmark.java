@@ -0,0 +1,119 @@
+package org.example.benchmark;
+
+import org.example.hash.DigestCache;
+import org.example.hash.DigestPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 偏斜（Zipf 分布）输入下 {@link DigestCache} 与直接计算的对比。
+ * 100,000 个不同的键，缓存容量约为其中 10%。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DigestCacheBenchmark {
+
+    private static final int KEYS = 100_000;
+
+    private static final int SEQUENCE_LENGTH = 1 << 20;
+
+    @Param({"SHA-256", "Keccak-256"})
+    public String algorithm;
+
+    /**
+     * Zipf 分布的指数，越大越偏斜。
+     */
+    @Param({"0.8", "1.1"})
+    public double skew;
+
+    /**
+     * 输入长度（字节）。
+     */
+    @Param({"32", "256"})
+    public int inputLength;
+
+    private byte[][] keys;
+
+    private int[] sequence;
+
+    private DigestCache cache;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        keys = new byte[KEYS][];
+        for (int i = 0; i < KEYS; i++) {
+            byte[] key = Arrays.copyOf(("api-key-" + i + "-").getBytes(StandardCharsets.US_ASCII), inputLength);
+            Arrays.fill(key, Math.min(inputLength, 16), inputLength, (byte) 'x');
+            keys[i] = key;
+        }
+        sequence = zipfSequence(KEYS, skew, SEQUENCE_LENGTH);
+        long entryWeight = inputLength + 32 + 96;
+        cache = new DigestCache(algorithm, KEYS / 10 * entryWeight, 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println("\n" + cache.stats());
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public byte[] uncached(Cursor cursor) throws NoSuchAlgorithmException {
+        return DigestPool.digest(algorithm, nextKey(cursor));
+    }
+
+    @Benchmark
+    public byte[] cached(Cursor cursor) throws NoSuchAlgorithmException {
+        return cache.digest(nextKey(cursor));
+    }
+
+    private byte[] nextKey(Cursor cursor) {
+        int index = sequence[cursor.next++ & (SEQUENCE_LENGTH - 1)];
+        return keys[index];
+    }
+
+    /**
+     * 按累积分布表反查生成 Zipf 分布的下标序列，秩 k 的概率与 1 / k^skew 成正比。
+     */
+    static int[] zipfSequence(int n, double skew, int length) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        int[] sequence = new int[length];
+        for (int i = 0; i < length; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            sequence[i] = index >= 0 ? index : Math.min(n - 1, -index - 1);
+        }
+        return sequence;
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.example.benchmark;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.example.hash.DigestPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每次 MessageDigest.getInstance 与 {@link DigestPool} 复用实例的开销对比。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigestPoolBenchmark {
+
+    @Param({"SHA-256", "SHA3-256", "Keccak-256"})
+    public String algorithm;
+
+    @Param({"16", "1024"})
+    public int size;
+
+    private byte[] input;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        input = BenchmarkData.bytes(size);
+        // getInstance 需要能找到 Keccak-256
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+        DigestPool.digest(algorithm, input);
+    }
+
+    @Benchmark
+    public byte[] getInstancePerCall() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(algorithm).digest(input);
+    }
+
+    @Benchmark
+    public byte[] threadLocal() throws NoSuchAlgorithmException {
+        return DigestPool.threadLocal(algorithm).digest(input);
+    }
+
+    @Benchmark
+    public byte[] boundedPool() throws NoSuchAlgorithmException {
+        try (DigestPool.Lease lease = DigestPool.borrow(algorithm)) {
+            return lease.digest().digest(input);
+        }
+    }
+
+}
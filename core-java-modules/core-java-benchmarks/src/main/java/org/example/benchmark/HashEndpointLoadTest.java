@@ -0,0 +1,136 @@
+package org.example.benchmark;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 针对本地运行的 core-java-security2 的 /hash/{algorithm} 接口做简单压测，输出每秒请求数与延迟分位数。
+ * 请求体由客户端按需生成，不会在客户端内存中构造完整的大请求体。
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.example.benchmark.HashEndpointLoadTest \
+ *     [baseUrl=http://localhost:8081] [algorithm=sha-256] [payloadBytes=65536] [concurrency=8] [seconds=30]
+ * </pre>
+ */
+public class HashEndpointLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        String algorithm = args.length > 1 ? args[1] : "sha-256";
+        long payloadBytes = args.length > 2 ? Long.parseLong(args[2]) : 64 * 1024;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors() * 2;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        URI uri = URI.create(baseUrl + "/hash/" + algorithm);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(executor.submit(() -> run(client, uri, payloadBytes, deadline, errors)));
+        }
+        List<long[]> perWorker = new ArrayList<>();
+        for (Future<long[]> worker : workers) {
+            perWorker.add(worker.get());
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        long[] latencies = perWorker.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("url=%s payload=%d B concurrency=%d duration=%.1f s%n", uri, payloadBytes, concurrency, elapsedSeconds);
+        System.out.printf("requests=%d errors=%d%n", latencies.length, errors.get());
+        if (latencies.length == 0) {
+            return;
+        }
+        System.out.printf("throughput: %.1f req/s, %.1f MB/s%n",
+                latencies.length / elapsedSeconds, latencies.length * payloadBytes / elapsedSeconds / (1 << 20));
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static long[] run(HttpClient client, URI uri, long payloadBytes, long deadline, AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.fromPublisher(
+                            HttpRequest.BodyPublishers.ofInputStream(() -> new PatternInputStream(payloadBytes)), payloadBytes))
+                    .build();
+            long begin = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count << 1);
+            }
+            latencies[count++] = System.nanoTime() - begin;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * 按需生成固定长度的重复字节流，内存占用与请求体大小无关。
+     */
+    private static final class PatternInputStream extends InputStream {
+
+        private long remaining;
+
+        PatternInputStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return (int) (remaining & 0x7f);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = (int) Math.min(len, remaining);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) ((remaining - i - 1) & 0x7f);
+            }
+            remaining -= n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.example.hash.Keccak256Hashing;
+import org.example.hash.SHA256Hashing;
+import org.example.hash.SHA3Hashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对 org.example.hash 中所有摘要实现进行对比：吞吐量与延迟分布（SampleTime），
+ * 分配速率由运行时的 gc profiler 给出，线程数由 {@link BenchmarkRunner} 控制。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashingBenchmark {
+
+    /**
+     * 输入长度（字节），从 16 B 到 64 MB。
+     */
+    @Param({"16", "256", "4096", "65536", "1048576", "16777216", "67108864"})
+    public int size;
+
+    private String input;
+
+    @Setup
+    public void setUp() {
+        input = BenchmarkData.asciiString(size);
+    }
+
+    @Benchmark
+    public String sha256JavaMessageDigest() throws NoSuchAlgorithmException {
+        return SHA256Hashing.HashWithJavaMessageDigest(input);
+    }
+
+    @Benchmark
+    public String sha256Guava() {
+        return SHA256Hashing.hashWithGuava(input);
+    }
+
+    @Benchmark
+    public String sha256ApacheCommons() {
+        return SHA256Hashing.HashWithApacheCommons(input);
+    }
+
+    @Benchmark
+    public String sha256BouncyCastle() throws NoSuchAlgorithmException {
+        return SHA256Hashing.HashWithBouncyCastle(input);
+    }
+
+    @Benchmark
+    public String sha3JavaMessageDigestJDK9() throws NoSuchAlgorithmException {
+        return SHA3Hashing.hashWithJavaMessageDigestJDK9(input);
+    }
+
+    @Benchmark
+    public String sha3JavaMessageDigest() throws NoSuchAlgorithmException {
+        return SHA3Hashing.hashWithJavaMessageDigest(input);
+    }
+
+    @Benchmark
+    public String sha3ApacheCommonsJDK9() {
+        return SHA3Hashing.hashWithApacheCommonsJDK9(input);
+    }
+
+    @Benchmark
+    public String sha3BouncyCastle() {
+        return SHA3Hashing.hashWithBouncyCastle(input);
+    }
+
+    @Benchmark
+    public String keccak256JavaMessageDigest() throws NoSuchAlgorithmException {
+        return Keccak256Hashing.hashWithJavaMessageDigest(input);
+    }
+
+    @Benchmark
+    public String keccak256BouncyCastle() {
+        return Keccak256Hashing.hashWithBouncyCastle(input);
+    }
+
+}
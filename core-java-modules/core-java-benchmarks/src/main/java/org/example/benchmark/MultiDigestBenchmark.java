@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import org.example.check.ChecksumAlgorithm;
+import org.example.check.ChecksumUtils;
+import org.example.check.MultiDigest;
+import org.example.hash.DigestAlgorithms;
+import org.example.hash.FileHashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一个文件的 MD5 + SHA-256 + CRC32：分别读取三遍，与 {@link MultiDigest} 单遍读取（顺序 / 读取与计算重叠）对比。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiDigestBenchmark {
+
+    @Param({"1048576", "67108864"})
+    public int size;
+
+    private Path file;
+
+    private MultiDigest multiDigest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, NoSuchAlgorithmException {
+        file = Files.createTempFile("multi-digest-benchmark", ".bin");
+        Files.write(file, BenchmarkData.bytes(size));
+        multiDigest = new MultiDigest(Arrays.asList(DigestAlgorithms.MD5, DigestAlgorithms.SHA_256),
+                Collections.singletonList(ChecksumAlgorithm.CRC32));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void threePasses(Blackhole blackhole) throws IOException, NoSuchAlgorithmException {
+        blackhole.consume(FileHashing.hash(file, DigestAlgorithms.MD5));
+        blackhole.consume(FileHashing.hash(file, DigestAlgorithms.SHA_256));
+        try (FileChannel channel = FileChannel.open(file)) {
+            blackhole.consume(ChecksumUtils.getChecksum(ChecksumAlgorithm.CRC32, channel));
+        }
+    }
+
+    @Benchmark
+    public MultiDigest.Result singlePass() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return multiDigest.digest(in, MultiDigest.DEFAULT_BLOCK_SIZE, false);
+        }
+    }
+
+    @Benchmark
+    public MultiDigest.Result singlePassOverlapped() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return multiDigest.digest(in, MultiDigest.DEFAULT_BLOCK_SIZE, true);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.benchmark;
+
+import org.example.password.PBKDF2Hasher;
+import org.example.password.SHA512Hasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密码哈希的吞吐量与延迟分布：{@link PBKDF2Hasher} 的每个成本值（10 到 20），{@link SHA512Hasher} 的字符串与字节接口，
+ * 以及 {@link PBKDF2Hasher#hash(char[])} 中共享 {@link SecureRandom} 与每线程一个实例的对比。
+ * 线程数由 {@link BenchmarkRunner} 控制，多线程下 hash 与 checkPassword 的差值即为生成盐值的开销（含争用）。
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar PasswordHashingBenchmark
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final char[] PASSWORD = "correct horse battery staple".toCharArray();
+
+    @State(Scope.Benchmark)
+    public static class Pbkdf2 {
+
+        @Param({"10", "11", "12", "13", "14", "15", "16", "17", "18", "19", "20"})
+        public int cost;
+
+        PBKDF2Hasher hasher;
+
+        String token;
+
+        @Setup
+        public void setUp() {
+            hasher = new PBKDF2Hasher(cost);
+            token = hasher.hash(PASSWORD);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Sha512 {
+
+        final SHA512Hasher hasher = new SHA512Hasher();
+
+        final byte[] salt = BenchmarkData.bytes(16);
+
+        byte[] hash;
+
+        String hex;
+
+        @Setup
+        public void setUp() {
+            hash = hasher.hash(PASSWORD, salt);
+            hex = hasher.hash(new String(PASSWORD), salt);
+        }
+    }
+
+    /**
+     * 与 PBKDF2Hasher 一样，所有线程共享一个实例。
+     */
+    @State(Scope.Benchmark)
+    public static class SharedRandom {
+
+        final SecureRandom random = new SecureRandom();
+
+        final byte[] salt = new byte[16];
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+
+        final SecureRandom random = new SecureRandom();
+
+        final byte[] salt = new byte[16];
+    }
+
+    @Benchmark
+    public String pbkdf2Hash(Pbkdf2 state) {
+        return state.hasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean pbkdf2Check(Pbkdf2 state) {
+        return state.hasher.checkPassword(PASSWORD, state.token);
+    }
+
+    @Benchmark
+    public String sha512Hash(Sha512 state) {
+        return state.hasher.hash(new String(PASSWORD), state.salt);
+    }
+
+    @Benchmark
+    public boolean sha512CheckHex(Sha512 state) {
+        return state.hasher.checkPassword(state.hex, new String(PASSWORD), state.salt);
+    }
+
+    @Benchmark
+    public boolean sha512CheckBytes(Sha512 state) {
+        return state.hasher.checkPassword(state.hash, PASSWORD, state.salt);
+    }
+
+    @Benchmark
+    public byte[] saltSharedSecureRandom(SharedRandom state) {
+        // 共享实例的 salt 数组在多线程下被同时写入，这里只关心 nextBytes 的耗时
+        state.random.nextBytes(state.salt);
+        return state.salt;
+    }
+
+    @Benchmark
+    public byte[] saltThreadLocalSecureRandom(ThreadRandom state) {
+        state.random.nextBytes(state.salt);
+        return state.salt;
+    }
+}
@@ -0,0 +1,271 @@
+package org.example.benchmark;
+
+import org.example.password.PBKDF2Hasher;
+import org.example.password.SHA512Hasher;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 认证服务容量规划用的密码哈希压测：对每种操作依次以 1, 2, 4 ... 2N（N 为 CPU 核数）个线程持续调用，
+ * 输出每秒次数、每核每秒次数以及 p50/p99/max 延迟，并追加到 CSV 文件，便于跨版本绘图对比。
+ *
+ * 操作包括 {@link PBKDF2Hasher} 在 minCost 到 maxCost 的每个成本值下的 hash 与 checkPassword、
+ * {@link SHA512Hasher} 的 hash 与 checkPassword，以及生成 16 字节盐值时共享一个 {@link SecureRandom}
+ * （PBKDF2Hasher 的做法）与每线程一个实例的对比，两者的差值即为共享实例的争用开销。
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.example.benchmark.PasswordHashingLoadTest \
+ *     [csv=jmh-results/password-hashing.csv] [label=dev] [secondsPerRun=3] [minCost=10] [maxCost=20]
+ * </pre>
+ */
+public class PasswordHashingLoadTest {
+
+    private static final String HEADER =
+            "label,java,cores,operation,cost,threads,operations,seconds,ops_per_sec,ops_per_sec_per_core,p50_ms,p99_ms,max_ms";
+
+    private static final char[] PASSWORD = "correct horse battery staple".toCharArray();
+
+    public static void main(String[] args) throws Exception {
+        Path csv = Paths.get(args.length > 0 ? args[0] : "jmh-results/password-hashing.csv");
+        String label = args.length > 1 ? args[1] : "dev";
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int minCost = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int maxCost = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = BenchmarkRunner.threadCounts(2 * cores);
+        List<Operation> operations = operations(minCost, maxCost);
+
+        if (csv.getParent() != null) {
+            Files.createDirectories(csv.getParent());
+        }
+        boolean newFile = !Files.exists(csv) || Files.size(csv) == 0;
+        try (Writer out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newFile) {
+                out.write(HEADER + "\n");
+            }
+            for (Operation operation : operations) {
+                for (int threads : threadCounts) {
+                    Result result = run(operation, threads, seconds);
+                    String row = String.format(Locale.ROOT, "%s,%s,%d,%s,%s,%d,%d,%.3f,%.2f,%.2f,%.4f,%.4f,%.4f",
+                            label, System.getProperty("java.version"), cores, operation.name,
+                            operation.cost < 0 ? "" : String.valueOf(operation.cost), threads, result.operations,
+                            result.seconds, result.opsPerSecond(), result.opsPerSecond() / Math.min(threads, cores),
+                            result.latencies.percentile(0.50) / 1e6, result.latencies.percentile(0.99) / 1e6,
+                            result.latencies.max() / 1e6);
+                    out.write(row + "\n");
+                    out.flush();
+                    System.out.println(row);
+                }
+            }
+        }
+        System.out.println("结果已追加到 " + csv.toAbsolutePath());
+    }
+
+    private static List<Operation> operations(int minCost, int maxCost) {
+        List<Operation> operations = new ArrayList<>();
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            PBKDF2Hasher hasher = new PBKDF2Hasher(cost);
+            String token = hasher.hash(PASSWORD);
+            operations.add(new Operation("pbkdf2-hash", cost, () -> () -> hasher.hash(PASSWORD)));
+            operations.add(new Operation("pbkdf2-check", cost, () -> () -> hasher.checkPassword(PASSWORD, token)));
+        }
+
+        SHA512Hasher sha512 = new SHA512Hasher();
+        byte[] salt = BenchmarkData.bytes(16);
+        byte[] hash = sha512.hash(PASSWORD, salt);
+        operations.add(new Operation("sha512-hash", -1, () -> () -> sha512.hash(PASSWORD, salt)));
+        operations.add(new Operation("sha512-check", -1, () -> () -> sha512.checkPassword(hash, PASSWORD, salt)));
+
+        SecureRandom shared = new SecureRandom();
+        operations.add(new Operation("salt-shared-securerandom", -1, () -> {
+            byte[] bytes = new byte[16];
+            return () -> shared.nextBytes(bytes);
+        }));
+        operations.add(new Operation("salt-per-thread-securerandom", -1, () -> {
+            SecureRandom random = new SecureRandom();
+            byte[] bytes = new byte[16];
+            return () -> random.nextBytes(bytes);
+        }));
+        return operations;
+    }
+
+    /**
+     * 预热一轮后，threads 个线程同时开始，持续 seconds 秒调用同一操作。
+     */
+    private static Result run(Operation operation, int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            measure(executor, operation, threads, 1);
+            return measure(executor, operation, threads, seconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Result measure(ExecutorService executor, Operation operation, int threads, int seconds)
+            throws Exception {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Future<LatencyHistogram>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                Runnable task = operation.factory.get();
+                LatencyHistogram histogram = new LatencyHistogram();
+                ready.countDown();
+                go.await();
+                long end = deadline[0];
+                long now = System.nanoTime();
+                // 至少执行一次，高成本下单次可能超过整个测量时长
+                do {
+                    task.run();
+                    long done = System.nanoTime();
+                    histogram.record(done - now);
+                    now = done;
+                } while (now < end);
+                return histogram;
+            }));
+        }
+        ready.await();
+        long start = System.nanoTime();
+        deadline[0] = start + TimeUnit.SECONDS.toNanos(seconds);
+        go.countDown();
+        LatencyHistogram total = new LatencyHistogram();
+        for (Future<LatencyHistogram> worker : workers) {
+            total.add(worker.get());
+        }
+        return new Result(total.count(), (System.nanoTime() - start) / 1e9, total);
+    }
+
+    private static final class Operation {
+
+        private final String name;
+
+        private final int cost;
+
+        /**
+         * 每个线程调用一次，得到该线程使用的任务，线程私有的状态在这里创建。
+         */
+        private final Supplier<Runnable> factory;
+
+        Operation(String name, int cost, Supplier<Runnable> factory) {
+            this.name = name;
+            this.cost = cost;
+            this.factory = factory;
+        }
+    }
+
+    private static final class Result {
+
+        private final long operations;
+
+        private final double seconds;
+
+        private final LatencyHistogram latencies;
+
+        Result(long operations, double seconds, LatencyHistogram latencies) {
+            this.operations = operations;
+            this.seconds = seconds;
+            this.latencies = latencies;
+        }
+
+        double opsPerSecond() {
+            return operations / seconds;
+        }
+    }
+
+    /**
+     * 对数-线性分桶的延迟直方图（纳秒），相对误差不超过 1/32，记录时不分配对象，
+     * 微秒级的操作持续数秒也不需要保存每个样本。
+     */
+    static final class LatencyHistogram {
+
+        private static final int SUB_BUCKET_BITS = 5;
+
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final long[] counts = new long[64 * SUB_BUCKETS];
+
+        private long count;
+
+        private long max;
+
+        void record(long nanos) {
+            long value = Math.max(1, nanos);
+            counts[index(value)]++;
+            count++;
+            max = Math.max(max, value);
+        }
+
+        void add(LatencyHistogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        long count() {
+            return count;
+        }
+
+        long max() {
+            return max;
+        }
+
+        /**
+         * @return 第 p 分位所在桶的上界（纳秒），不超过最大值
+         */
+        long percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, upperBound(i));
+                }
+            }
+            return max;
+        }
+
+        static int index(long value) {
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent < SUB_BUCKET_BITS) {
+                return (int) value;
+            }
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        static long upperBound(int index) {
+            int group = index >>> SUB_BUCKET_BITS;
+            int sub = index & (SUB_BUCKETS - 1);
+            if (group == 0) {
+                return sub;
+            }
+            int shift = group - 1;
+            return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+        }
+    }
+}
@@ -3,17 +3,43 @@ package org.example.file;
 import javax.crypto.*;
 import javax.crypto.spec.IvParameterSpec;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
 
 /**
  * 文件加密器类，用于对文件内容进行加密和解密。
+ *
+ * 加密文件的格式为：IV（长度为算法的分组长度）后接密文。{@link #encrypt(Path, Path)} 与 {@link #decrypt(Path, Path)}
+ * 以流的方式处理任意大小的二进制文件，通过 FileChannel 读写，缓冲区只分配一次并在多次调用之间复用，
+ * 内存占用与文件大小无关。这只对 CBC、CTR 这类逐块输出的模式成立：GCM 等 AEAD 模式解密时要缓存全部密文，
+ * 因此构造时直接拒绝。
+ *
+ * 输出先写入同一目录下的临时文件，全部成功后才原子地替换目标文件；失败时目标文件保持原样，不会留下未经校验的部分明文。
+ *
+ * 该类的实例不是线程安全的。
  */
 public class FileEncryptor {
 
+    /**
+     * 流式加解密默认的缓冲区大小。
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
     private SecretKey secretKey; // 私钥，用于加密和解密
     private Cipher cipher; // 加密/解密器
+    private final int bufferSize; // 流式加解密每次读取的字节数
+    private final boolean directBuffers; // 是否使用直接缓冲区
+    private ByteBuffer input; // 复用的读缓冲区
+    private ByteBuffer output; // 复用的写缓冲区
 
     /**
      * 构造函数，初始化加密/解密器。
@@ -24,8 +50,43 @@ public class FileEncryptor {
      * @throws NoSuchAlgorithmException 如果指定的算法不存在
      */
     FileEncryptor(SecretKey secretKey, String cipher) throws NoSuchPaddingException, NoSuchAlgorithmException {
+        this(secretKey, cipher, DEFAULT_BUFFER_SIZE, false);
+    }
+
+    /**
+     * 构造函数，指定流式加解密使用的缓冲区。
+     *
+     * 堆缓冲区可以让 Cipher 直接操作底层数组，但 FileChannel 读写时要经过一次临时直接缓冲区的复制；
+     * 直接缓冲区则相反，FileChannel 不需要复制，Cipher 要分段复制到临时数组。哪种更快取决于算法和平台。
+     *
+     * @param secretKey     加密使用的私钥
+     * @param cipher        加密算法/模式/填充方式
+     * @param bufferSize    每次读取的字节数
+     * @param directBuffers 是否使用直接缓冲区
+     * @throws NoSuchPaddingException 如果指定的填充名称不存在
+     * @throws NoSuchAlgorithmException 如果指定的算法不存在
+     */
+    FileEncryptor(SecretKey secretKey, String cipher, int bufferSize, boolean directBuffers)
+            throws NoSuchPaddingException, NoSuchAlgorithmException {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区大小必须为正数: " + bufferSize);
+        }
+        if (isAead(cipher)) {
+            throw new IllegalArgumentException("不支持 AEAD 模式: " + cipher);
+        }
         this.secretKey = secretKey;
         this.cipher = Cipher.getInstance(cipher);
+        this.bufferSize = bufferSize;
+        this.directBuffers = directBuffers;
+    }
+
+    /**
+     * AEAD 模式在验证标签之前不能输出明文，Cipher 会缓存全部数据，与流式处理和固定大小的输出缓冲区都不兼容。
+     */
+    private static boolean isAead(String transformation) {
+        String[] parts = transformation.toUpperCase(Locale.ROOT).split("/");
+        String mode = parts.length > 1 ? parts[1] : "";
+        return mode.equals("GCM") || mode.equals("CCM") || parts[0].endsWith("-POLY1305");
     }
 
     /**
@@ -85,4 +146,142 @@ public class FileEncryptor {
         }
         return content;
     }
+
+    /**
+     * 以流的方式加密文件 in，写入 out（已存在时覆盖）。
+     *
+     * @param in  需要加密的文件
+     * @param out 加密后内容输出的文件，不能与 in 相同
+     * @throws InvalidKeyException 如果密钥无效
+     * @throws IOException         如果文件读写发生错误，此时 out 保持原样
+     */
+    public void encrypt(Path in, Path out) throws InvalidKeyException, IOException {
+        checkDistinct(in, out);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        Path temp = createTempFile(out);
+        try {
+            try (
+                    FileChannel source = FileChannel.open(in, StandardOpenOption.READ);
+                    FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)
+            ) {
+                writeFully(target, ByteBuffer.wrap(cipher.getIV()));
+                transform(source, target);
+            }
+            replace(temp, out);
+        } finally {
+            discard(temp);
+        }
+    }
+
+    /**
+     * 以流的方式解密文件 in，写入 out（已存在时覆盖）。
+     *
+     * @param in  加密内容输入的文件
+     * @param out 解密后内容输出的文件，不能与 in 相同
+     * @throws InvalidAlgorithmParameterException 如果算法参数无效
+     * @throws InvalidKeyException                 如果密钥无效
+     * @throws IOException                        如果文件读写发生错误，或密文不完整、填充错误，此时 out 保持原样
+     */
+    public void decrypt(Path in, Path out) throws InvalidAlgorithmParameterException, InvalidKeyException, IOException {
+        checkDistinct(in, out);
+        Path temp = createTempFile(out);
+        try {
+            try (
+                    FileChannel source = FileChannel.open(in, StandardOpenOption.READ);
+                    FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)
+            ) {
+                ByteBuffer iv = ByteBuffer.allocate(cipher.getBlockSize());
+                while (iv.hasRemaining()) {
+                    if (source.read(iv) < 0) {
+                        throw new EOFException("加密文件不完整，缺少 IV: " + in);
+                    }
+                }
+                cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(iv.array()));
+                transform(source, target);
+            }
+            replace(temp, out);
+        } finally {
+            discard(temp);
+        }
+    }
+
+    private static void checkDistinct(Path in, Path out) throws IOException {
+        if (Files.exists(out) && Files.isSameFile(in, out)) {
+            throw new IllegalArgumentException("输入和输出不能是同一个文件: " + out);
+        }
+    }
+
+    /**
+     * 在 out 所在目录创建临时文件，保证之后的移动是同一文件系统内的重命名。
+     */
+    private static Path createTempFile(Path out) throws IOException {
+        Path parent = out.toAbsolutePath().getParent();
+        return Files.createTempFile(parent, "." + out.getFileName(), ".tmp");
+    }
+
+    private static void replace(Path temp, Path out) throws IOException {
+        Files.move(temp, out, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 成功时临时文件已被移走，这里什么也不做；失败时删除临时文件，删除本身出错不掩盖原来的异常。
+     */
+    private static void discard(Path temp) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // 保留原来的异常
+        }
+    }
+
+    /**
+     * 每次读取一个缓冲区交给 {@link Cipher#update(ByteBuffer, ByteBuffer)}，结果立即写出，最后写出 doFinal 的输出。
+     */
+    private void transform(FileChannel source, FileChannel target) throws IOException {
+        ByteBuffer in = inputBuffer();
+        ByteBuffer out = outputBuffer(cipher.getOutputSize(bufferSize));
+        try {
+            in.clear();
+            while (source.read(in) >= 0) {
+                in.flip();
+                out.clear();
+                cipher.update(in, out);
+                in.clear();
+                out.flip();
+                writeFully(target, out);
+            }
+            in.flip();
+            out.clear();
+            cipher.doFinal(in, out);
+            out.flip();
+            writeFully(target, out);
+        } catch (GeneralSecurityException e) {
+            // 与 CipherInputStream 一致，密文损坏或密钥错误时以 IOException 报告
+            throw new IOException("加解密失败", e);
+        }
+    }
+
+    private ByteBuffer inputBuffer() {
+        if (input == null) {
+            input = allocate(bufferSize);
+        }
+        return input;
+    }
+
+    private ByteBuffer outputBuffer(int size) {
+        if (output == null || output.capacity() < size) {
+            output = allocate(size);
+        }
+        return output;
+    }
+
+    private ByteBuffer allocate(int size) {
+        return directBuffers ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
 }
@@ -1,21 +1,34 @@
 package org.example.file;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public class FileEncrypterDecrypterIntegrationTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void givenStringAndFilename_whenEncryptingIntoFile_andDecryptingFileAgain_thenOriginalStringIsReturned() throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, IOException, InvalidAlgorithmParameterException {
         String originalContent = "foobar";
@@ -30,4 +43,105 @@ public class FileEncrypterDecrypterIntegrationTest {
         new File("baz.enc").delete(); // cleanup
     }
 
-}
\ No newline at end of file
+    @Test
+    public void givenBinaryFile_whenEncryptingAndDecryptingStreaming_thenOriginalBytesAreReturned() throws Exception {
+        byte[] original = new byte[3 * 65536 + 12345];
+        new Random(42).nextBytes(original);
+        Path plain = folder.newFile("plain.bin").toPath();
+        Files.write(plain, original);
+        SecretKey secretKey = KeyGenerator.getInstance("AES").generateKey();
+
+        for (boolean direct : new boolean[]{false, true}) {
+            FileEncryptor fileEncrypterDecrypter = new FileEncryptor(secretKey, "AES/CBC/PKCS5Padding", 65536, direct);
+            Path encrypted = folder.getRoot().toPath().resolve("plain.bin.enc");
+            Path decrypted = folder.getRoot().toPath().resolve("plain.bin.dec");
+
+            fileEncrypterDecrypter.encrypt(plain, encrypted);
+            // 第二次调用复用同一组缓冲区
+            fileEncrypterDecrypter.encrypt(plain, encrypted);
+            fileEncrypterDecrypter.decrypt(encrypted, decrypted);
+
+            assertThat(Files.size(encrypted), is(16L + (original.length / 16 + 1) * 16L));
+            assertArrayEquals(original, Files.readAllBytes(decrypted));
+        }
+    }
+
+    @Test
+    public void givenStringEncryptedFile_whenDecryptingStreaming_thenNewlinesArePreserved() throws Exception {
+        String originalContent = "foo\nbar\r\n";
+        SecretKey secretKey = KeyGenerator.getInstance("AES").generateKey();
+        FileEncryptor fileEncrypterDecrypter = new FileEncryptor(secretKey, "AES/CBC/PKCS5Padding");
+        File encrypted = folder.newFile("content.enc");
+        Path decrypted = folder.getRoot().toPath().resolve("content.txt");
+
+        fileEncrypterDecrypter.encrypt(originalContent, encrypted.getPath());
+        fileEncrypterDecrypter.decrypt(encrypted.toPath(), decrypted);
+
+        assertThat(new String(Files.readAllBytes(decrypted), StandardCharsets.UTF_8), is(originalContent));
+    }
+
+    @Test
+    public void givenWrongKey_whenDecryptingStreaming_thenIOExceptionAndOutputUntouched() throws Exception {
+        Path plain = folder.newFile("secret.txt").toPath();
+        Files.write(plain, new byte[1000]);
+        Path encrypted = folder.getRoot().toPath().resolve("secret.enc");
+        new FileEncryptor(KeyGenerator.getInstance("AES").generateKey(), "AES/CBC/PKCS5Padding").encrypt(plain, encrypted);
+        Path decrypted = folder.getRoot().toPath().resolve("secret.dec");
+        Files.write(decrypted, "previous".getBytes(StandardCharsets.UTF_8));
+
+        FileEncryptor wrongKey = new FileEncryptor(KeyGenerator.getInstance("AES").generateKey(), "AES/CBC/PKCS5Padding");
+        try {
+            wrongKey.decrypt(encrypted, decrypted);
+            // 错误的密钥有约 1/256 的概率恰好得到合法的填充
+            assertThat(Files.size(decrypted) >= 1008 - 16 && Files.size(decrypted) < 1008, is(true));
+        } catch (IOException expected) {
+            // 填充错误：已有的输出文件不应被改动，也不应留下临时文件
+            assertThat(new String(Files.readAllBytes(decrypted), StandardCharsets.UTF_8), is("previous"));
+            assertNoTempFiles();
+        }
+    }
+
+    @Test
+    public void givenTruncatedFile_whenDecryptingStreaming_thenIOExceptionAndNoOutput() throws Exception {
+        Path encrypted = folder.newFile("short.enc").toPath();
+        Files.write(encrypted, new byte[8]);
+        FileEncryptor fileEncrypterDecrypter = new FileEncryptor(KeyGenerator.getInstance("AES").generateKey(),
+                "AES/CBC/PKCS5Padding");
+        Path decrypted = folder.getRoot().toPath().resolve("short.dec");
+        try {
+            fileEncrypterDecrypter.decrypt(encrypted, decrypted);
+            fail();
+        } catch (IOException expected) {
+            // 缺少 IV
+        }
+        assertFalse(Files.exists(decrypted));
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void givenSameInputAndOutput_whenEncryptingStreaming_thenRejectedAndInputUntouched() throws Exception {
+        Path plain = folder.newFile("same.txt").toPath();
+        Files.write(plain, "foobar".getBytes(StandardCharsets.UTF_8));
+        FileEncryptor fileEncrypterDecrypter = new FileEncryptor(KeyGenerator.getInstance("AES").generateKey(),
+                "AES/CBC/PKCS5Padding");
+        try {
+            fileEncrypterDecrypter.encrypt(plain, folder.getRoot().toPath().resolve(".").resolve("same.txt"));
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // 输入和输出是同一个文件
+        }
+        assertThat(new String(Files.readAllBytes(plain), StandardCharsets.UTF_8), is("foobar"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenAeadTransformation_whenCreatingEncryptor_thenRejected() throws Exception {
+        new FileEncryptor(KeyGenerator.getInstance("AES").generateKey(), "AES/GCM/NoPadding");
+    }
+
+    private void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertThat(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")), is(true));
+        }
+    }
+
+}
@@ -1,12 +1,41 @@
 package org.example;
 
+import org.example.hash.DigestProviders;
+import org.example.password.PBKDF2Calibrator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.time.Duration;
+
 @SpringBootApplication
 public class CoreJavaSecurity2Application {
 
+    private static final Logger LOG = LoggerFactory.getLogger(CoreJavaSecurity2Application.class);
+
+    /**
+     * 设置该系统属性（毫秒）时，启动前按此 p95 预算校准 PBKDF2 成本，例如 -Dpbkdf2.calibrate.budget-ms=50。
+     */
+    static final String PBKDF2_BUDGET_PROPERTY = "pbkdf2.calibrate.budget-ms";
+
+    /**
+     * 设置为 true 时，启动前对摘要 provider 测速并重新绑定（耗时数秒），例如 -Ddigest.calibrate=true。
+     * 未设置时使用 JDK 默认的 provider。
+     */
+    static final String DIGEST_CALIBRATE_PROPERTY = "digest.calibrate";
+
     public static void main(String[] args) {
+        if (Boolean.getBoolean(DIGEST_CALIBRATE_PROPERTY)) {
+            DigestProviders.calibrate();
+            LOG.info("摘要 provider 测速结果: {}", DigestProviders.selections());
+        }
+        Long budget = Long.getLong(PBKDF2_BUDGET_PROPERTY);
+        if (budget != null) {
+            PBKDF2Calibrator.Result result = new PBKDF2Calibrator(Duration.ofMillis(budget),
+                    Runtime.getRuntime().availableProcessors()).calibrate();
+            LOG.info("PBKDF2 成本校准 (p95 <= {} ms): {}", budget, result);
+        }
         SpringApplication.run(CoreJavaSecurity2Application.class, args);
     }
 
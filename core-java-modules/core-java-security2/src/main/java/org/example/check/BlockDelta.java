@@ -0,0 +1,502 @@
+package org.example.check;
+
+import org.example.hash.DigestAlgorithms;
+import org.example.hash.DigestPool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * rsync 风格的块级差量：
+ * <ol>
+ *     <li>{@link #signature} 把旧版本切成固定大小的块，为每块计算 {@link RollingChecksum} 和 SHA-256；</li>
+ *     <li>{@link #diff} 在新版本的每个偏移上滚动更新弱校验和，命中后再用 SHA-256 确认，
+ *         输出引用旧块的 COPY 指令和未匹配字节的 LITERAL 指令；</li>
+ *     <li>{@link #patch} 用旧版本和差量重建新版本，并用差量末尾记录的 SHA-256 校验结果。</li>
+ * </ol>
+ *
+ * 差量格式：magic "DELT"、版本号、块大小，随后是若干指令：
+ * COPY（起始块号、连续块数）、LITERAL（长度、数据）、END（新版本的 SHA-256）。
+ * 数字使用无符号 LEB128 变长编码，连续的块合并为一条 COPY，因此未修改的大段数据只占几个字节。
+ */
+public final class BlockDelta {
+
+    public static final int DEFAULT_BLOCK_SIZE = 8 * 1024;
+
+    /**
+     * 块大小上限。差量头中的块大小来自外部数据，超过该值直接拒绝，避免按其分配缓冲区时耗尽内存。
+     */
+    public static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
+    static final int MAGIC = 0x44454C54;
+
+    static final int VERSION = 1;
+
+    private static final int OP_END = 0;
+
+    private static final int OP_COPY = 1;
+
+    private static final int OP_LITERAL = 2;
+
+    /**
+     * 未匹配字节累积到该大小就先输出一条 LITERAL，差量生成的内存占用与文件大小无关。
+     */
+    private static final int MAX_LITERAL = 1 << 20;
+
+    private static final int SHA256_LENGTH = 32;
+
+    private BlockDelta() {
+    }
+
+    /**
+     * 计算旧版本的块签名，读取到流末尾为止，不会关闭流。
+     */
+    public static Signature signature(InputStream oldData, int blockSize) throws IOException {
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("块大小必须在 1 到 " + MAX_BLOCK_SIZE + " 之间: " + blockSize);
+        }
+        MessageDigest sha256 = sha256();
+        byte[] block = new byte[blockSize];
+        int[] weak = new int[16];
+        byte[][] strong = new byte[16][];
+        int count = 0;
+        long length = 0;
+        int lastLength = 0;
+        int read;
+        while ((read = oldData.readNBytes(block, 0, blockSize)) > 0) {
+            if (count == weak.length) {
+                weak = Arrays.copyOf(weak, count << 1);
+                strong = Arrays.copyOf(strong, count << 1);
+            }
+            weak[count] = RollingChecksum.of(block, 0, read);
+            sha256.update(block, 0, read);
+            strong[count] = sha256.digest();
+            count++;
+            length += read;
+            lastLength = read;
+        }
+        return new Signature(blockSize, length, lastLength, Arrays.copyOf(weak, count), Arrays.copyOf(strong, count));
+    }
+
+    /**
+     * 对照旧版本的签名扫描新版本，把差量写入 delta。读取到 newData 末尾为止，两个流都不会被关闭。
+     */
+    public static Stats diff(Signature signature, InputStream newData, OutputStream delta) throws IOException {
+        int blockSize = signature.blockSize;
+        DeltaWriter writer = new DeltaWriter(new DataOutputStream(new BufferedOutputStream(delta)), blockSize);
+        MessageDigest blockDigest = sha256();
+        try (DigestPool.Lease lease = DigestPool.borrow(DigestAlgorithms.SHA_256)) {
+            MessageDigest whole = lease.digest();
+            byte[] buffer = new byte[Math.max(4 * blockSize, MAX_LITERAL)];
+            RollingChecksum rolling = new RollingChecksum();
+            boolean rollingValid = false;
+            boolean eof = false;
+            // [literalStart, start) 为已确认不匹配的字节，[start, start + blockSize) 为当前窗口
+            int literalStart = 0;
+            int start = 0;
+            int end = 0;
+            while (true) {
+                if (end - start < blockSize && !eof) {
+                    writer.literal(buffer, literalStart, start - literalStart);
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    end -= start;
+                    start = 0;
+                    literalStart = 0;
+                    while (end < buffer.length) {
+                        int read = newData.read(buffer, end, buffer.length - end);
+                        if (read < 0) {
+                            eof = true;
+                            break;
+                        }
+                        whole.update(buffer, end, read);
+                        end += read;
+                    }
+                    continue;
+                }
+                if (end - start < blockSize) {
+                    break;
+                }
+                if (!rollingValid) {
+                    rolling.reset(buffer, start, blockSize);
+                    rollingValid = true;
+                }
+                int match = signature.find(rolling.getValue(), buffer, start, blockSize, writer.nextBlock(), blockDigest);
+                if (match >= 0) {
+                    writer.literal(buffer, literalStart, start - literalStart);
+                    writer.copy(match, blockSize);
+                    start += blockSize;
+                    literalStart = start;
+                    rollingValid = false;
+                } else if (start + blockSize < end) {
+                    rolling.roll(buffer[start], buffer[start + blockSize]);
+                    start++;
+                } else {
+                    start++;
+                    rollingValid = false;
+                }
+            }
+            // 剩余不足一块：只可能与旧版本较短的最后一块相同
+            int tail = end - start;
+            int lastBlock = signature.blockCount() - 1;
+            if (tail > 0 && tail == signature.lastLength && tail < blockSize
+                    && signature.weak[lastBlock] == RollingChecksum.of(buffer, start, tail)
+                    && signature.strongMatches(lastBlock, buffer, start, tail, blockDigest)) {
+                writer.literal(buffer, literalStart, start - literalStart);
+                writer.copy(lastBlock, tail);
+            } else {
+                writer.literal(buffer, literalStart, end - literalStart);
+            }
+            return writer.finish(whole.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("缺少算法: " + DigestAlgorithms.SHA_256, e);
+        }
+    }
+
+    /**
+     * 用旧版本和差量重建新版本并写入 out。旧版本只使用按位置读取，不改变 channel 的 position。
+     *
+     * @throws IOException 差量格式错误、引用了旧版本中不存在的块，或重建结果的 SHA-256 与差量记录的不一致
+     */
+    public static void patch(FileChannel oldData, InputStream delta, OutputStream out) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(delta));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("不是差量数据");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("不支持的差量版本: " + version);
+        }
+        int blockSize = in.readInt();
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IOException("无效的块大小: " + blockSize);
+        }
+        long oldSize = oldData.size();
+        // 旧版本的块数（含末尾不完整的块），COPY 引用的块必须落在 [0, oldBlocks) 内
+        long oldBlocks = (oldSize + blockSize - 1) / blockSize;
+        byte[] buffer = new byte[Math.max(blockSize, 64 * 1024)];
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        try (DigestPool.Lease lease = DigestPool.borrow(DigestAlgorithms.SHA_256)) {
+            MessageDigest sha256 = lease.digest();
+            while (true) {
+                int op = in.readUnsignedByte();
+                if (op == OP_END) {
+                    byte[] expected = new byte[SHA256_LENGTH];
+                    in.readFully(expected);
+                    if (!MessageDigest.isEqual(expected, sha256.digest())) {
+                        throw new IOException("补丁结果校验失败：SHA-256 不一致");
+                    }
+                    out.flush();
+                    return;
+                } else if (op == OP_COPY) {
+                    long first = readVarLong(in);
+                    long count = readVarLong(in);
+                    // 先按块号检查，乘以块大小时就不会溢出
+                    if (first < 0 || first >= oldBlocks || count <= 0 || count > oldBlocks - first) {
+                        throw new IOException("差量引用了旧版本中不存在的块: " + Long.toUnsignedString(first)
+                                + " (+" + Long.toUnsignedString(count) + ")");
+                    }
+                    long position = first * blockSize;
+                    long end = Math.min(oldSize, (first + count) * blockSize);
+                    while (position < end) {
+                        view.clear().limit((int) Math.min(buffer.length, end - position));
+                        int read = oldData.read(view, position);
+                        if (read < 0) {
+                            throw new EOFException("旧版本在读取过程中被截断");
+                        }
+                        out.write(buffer, 0, read);
+                        sha256.update(buffer, 0, read);
+                        position += read;
+                    }
+                } else if (op == OP_LITERAL) {
+                    long remaining = readVarLong(in);
+                    if (remaining <= 0) {
+                        throw new IOException("无效的字面数据长度: " + Long.toUnsignedString(remaining));
+                    }
+                    while (remaining > 0) {
+                        int length = (int) Math.min(buffer.length, remaining);
+                        in.readFully(buffer, 0, length);
+                        out.write(buffer, 0, length);
+                        sha256.update(buffer, 0, length);
+                        remaining -= length;
+                    }
+                } else {
+                    throw new IOException("未知的差量指令: " + op);
+                }
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("缺少算法: " + DigestAlgorithms.SHA_256, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return DigestPool.threadLocal(DigestAlgorithms.SHA_256);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("缺少算法: " + DigestAlgorithms.SHA_256, e);
+        }
+    }
+
+    static int writeVarLong(DataOutputStream out, long value) throws IOException {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+            bytes++;
+        }
+        out.writeByte((int) value);
+        return bytes;
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("变长整数过长");
+    }
+
+    /**
+     * 负责合并连续的 COPY 与相邻的 LITERAL，并统计差量大小。
+     */
+    private static final class DeltaWriter {
+
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream literal = new ByteArrayOutputStream();
+        private final int blockSize;
+        private int copyStart = -1;
+        private int copyCount;
+        private long copiedBytes;
+        private long literalBytes;
+        private long deltaBytes;
+
+        DeltaWriter(DataOutputStream out, int blockSize) throws IOException {
+            this.out = out;
+            this.blockSize = blockSize;
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(blockSize);
+            deltaBytes = 9;
+        }
+
+        /**
+         * @return 能与当前 COPY 合并的下一个块号，没有进行中的 COPY 时为 -1
+         */
+        int nextBlock() {
+            return copyStart < 0 ? -1 : copyStart + copyCount;
+        }
+
+        void copy(int block, int length) throws IOException {
+            if (block != nextBlock()) {
+                flushCopy();
+                copyStart = block;
+            }
+            copyCount++;
+            copiedBytes += length;
+        }
+
+        void literal(byte[] data, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            flushCopy();
+            literal.write(data, off, len);
+            literalBytes += len;
+            if (literal.size() >= MAX_LITERAL) {
+                flushLiteral();
+            }
+        }
+
+        Stats finish(byte[] sha256) throws IOException {
+            flushCopy();
+            flushLiteral();
+            out.writeByte(OP_END);
+            out.write(sha256);
+            out.flush();
+            deltaBytes += 1 + sha256.length;
+            return new Stats(blockSize, copiedBytes, literalBytes, deltaBytes);
+        }
+
+        private void flushCopy() throws IOException {
+            flushLiteral();
+            if (copyCount > 0) {
+                out.writeByte(OP_COPY);
+                deltaBytes += 1 + writeVarLong(out, copyStart) + writeVarLong(out, copyCount);
+            }
+            copyStart = -1;
+            copyCount = 0;
+        }
+
+        private void flushLiteral() throws IOException {
+            if (literal.size() > 0) {
+                out.writeByte(OP_LITERAL);
+                deltaBytes += 1 + writeVarLong(out, literal.size()) + literal.size();
+                literal.writeTo(out);
+                literal.reset();
+            }
+        }
+    }
+
+    /**
+     * 旧版本的块签名。
+     */
+    public static final class Signature {
+
+        private final int blockSize;
+
+        private final long length;
+
+        private final int lastLength;
+
+        private final int[] weak;
+
+        private final byte[][] strong;
+
+        /**
+         * 弱校验和到块号的开放寻址表（线性探测），只包含完整的块；槽位存放块号 + 1，0 表示空槽。
+         * 弱校验和相同的块按块号顺序占据探测序列上的不同槽位。
+         */
+        private final int[] table;
+
+        /**
+         * 弱校验和 16 位标签的位图，与 rsync 的 tag table 相同：绝大多数窗口在这里就被排除，不需要探测 table。
+         */
+        private final long[] tags = new long[(1 << 16) / Long.SIZE];
+
+        Signature(int blockSize, long length, int lastLength, int[] weak, byte[][] strong) {
+            this.blockSize = blockSize;
+            this.length = length;
+            this.lastLength = lastLength;
+            this.weak = weak;
+            this.strong = strong;
+            this.table = new int[Integer.highestOneBit(Math.max(weak.length, 1)) << 2];
+            int mask = table.length - 1;
+            for (int i = 0; i < weak.length; i++) {
+                if (i < weak.length - 1 || lastLength == blockSize) {
+                    int slot = slot(weak[i]) & mask;
+                    while (table[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = i + 1;
+                    int tag = tag(weak[i]);
+                    tags[tag >>> 6] |= 1L << tag;
+                }
+            }
+        }
+
+        private static int tag(int weakValue) {
+            return (weakValue ^ (weakValue >>> 16)) & 0xFFFF;
+        }
+
+        private static int slot(int weakValue) {
+            return (weakValue * 0x9E3779B9) >>> 7;
+        }
+
+        /**
+         * 查找与窗口内容相同的块，优先返回 preferred 以便与前一个 COPY 合并；没有时返回 -1。
+         * 弱校验和未命中时不做任何分配，只有命中后才计算窗口的 SHA-256。
+         */
+        int find(int weakValue, byte[] data, int off, int len, int preferred, MessageDigest digest) {
+            int tag = tag(weakValue);
+            if ((tags[tag >>> 6] & (1L << tag)) == 0) {
+                return -1;
+            }
+            int mask = table.length - 1;
+            byte[] windowDigest = null;
+            int found = -1;
+            for (int slot = slot(weakValue) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                int block = table[slot] - 1;
+                if (weak[block] != weakValue) {
+                    continue;
+                }
+                if (windowDigest == null) {
+                    digest.update(data, off, len);
+                    windowDigest = digest.digest();
+                }
+                if (MessageDigest.isEqual(strong[block], windowDigest)) {
+                    if (block == preferred) {
+                        return block;
+                    }
+                    if (found < 0) {
+                        found = block;
+                    }
+                }
+            }
+            return found;
+        }
+
+        boolean strongMatches(int block, byte[] data, int off, int len, MessageDigest digest) {
+            digest.update(data, off, len);
+            return MessageDigest.isEqual(strong[block], digest.digest());
+        }
+
+        public int blockSize() {
+            return blockSize;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public int blockCount() {
+            return weak.length;
+        }
+    }
+
+    /**
+     * 一次差量生成的统计：从旧版本复用的字节数、需要传输的字面字节数和差量本身的大小。
+     */
+    public static final class Stats {
+
+        private final int blockSize;
+
+        private final long copiedBytes;
+
+        private final long literalBytes;
+
+        private final long deltaBytes;
+
+        Stats(int blockSize, long copiedBytes, long literalBytes, long deltaBytes) {
+            this.blockSize = blockSize;
+            this.copiedBytes = copiedBytes;
+            this.literalBytes = literalBytes;
+            this.deltaBytes = deltaBytes;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public long getCopiedBytes() {
+            return copiedBytes;
+        }
+
+        public long getLiteralBytes() {
+            return literalBytes;
+        }
+
+        public long getDeltaBytes() {
+            return deltaBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("blockSize=%d copied=%d literal=%d delta=%d", blockSize, copiedBytes, literalBytes, deltaBytes);
+        }
+    }
+}
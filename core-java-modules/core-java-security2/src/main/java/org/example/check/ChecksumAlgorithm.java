@@ -0,0 +1,35 @@
+package org.example.check;
+
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+/**
+ * ChecksumUtils 支持的校验和算法。
+ *
+ * <ul>
+ *     <li>CRC32：与 zip/gzip/PNG 等格式兼容。</li>
+ *     <li>CRC32C：Castagnoli 多项式，JDK 在支持的 CPU 上使用硬件指令，通常比 CRC32 更快。</li>
+ *     <li>ADLER32：计算最快，但短输入的检错能力较弱。</li>
+ *     <li>XXHASH64：纯 Java 实现的 64 位非加密哈希，碰撞概率远低于 32 位校验和。</li>
+ * </ul>
+ */
+public enum ChecksumAlgorithm {
+
+    CRC32(java.util.zip.CRC32::new),
+    CRC32C(java.util.zip.CRC32C::new),
+    ADLER32(java.util.zip.Adler32::new),
+    XXHASH64(XxHash64::new);
+
+    private final Supplier<Checksum> factory;
+
+    ChecksumAlgorithm(Supplier<Checksum> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * 创建一个新的校验和实例，实例本身不是线程安全的。
+     */
+    public Checksum newChecksum() {
+        return factory.get();
+    }
+}
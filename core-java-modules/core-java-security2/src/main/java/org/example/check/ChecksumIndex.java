@@ -0,0 +1,465 @@
+package org.example.check;
+
+import org.example.hash.HexCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 持久化的增量校验索引：记录每个文件的大小、修改时间、inode（平台支持时）、CRC32 和 SHA-256。
+ * 重新扫描时只读取元数据发生变化的文件，未变化的文件只需一次 stat，因此大目录的日常校验开销与变化量成正比。
+ *
+ * 元数据不变并不能发现静默损坏（位翻转），所以可以指定 scrubInterval：上次实际读取时间早于该间隔的文件
+ * 即使元数据未变也会重新读取并与索引比较，不一致的文件记入 {@link ScanResult#getCorrupted()}，
+ * 索引中保留原来的校验值，以便修复后再次比较。
+ *
+ * 修改时间的精度取决于文件系统（FAT 为 2 秒），读取前后同一精度内被改写且大小不变的文件，元数据与索引完全相同。
+ * 所以修改时间距读取时刻不足 {@link #RACY_WINDOW_NANOS} 的记录视为不可靠，下次扫描时无论元数据是否变化都重新读取。
+ *
+ * 索引文件格式（大端）：magic "CSIX"、版本号、条目数，随后每个条目依次为路径（int 长度 + UTF-8 字节）、
+ * 大小、修改时间（纳秒）、inode（不支持时为 -1）、CRC32、32 字节 SHA-256、上次读取时间（毫秒）。
+ * 版本 1 的路径以 modified UTF-8（最长 65535 字节）存储，仍然可以读取，保存时写成版本 2。
+ * 保存时先写临时文件再原子替换，中途失败不会破坏旧索引。扫描中读取失败时内存中的索引也保持不变。
+ */
+public final class ChecksumIndex {
+
+    static final int MAGIC = 0x43534958;
+
+    static final int VERSION = 2;
+
+    private static final int VERSION_MODIFIED_UTF8 = 1;
+
+    /**
+     * 修改时间与读取时刻相差小于该值的记录在下次扫描时重新读取，覆盖常见文件系统的时间戳精度。
+     */
+    static final long RACY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    /**
+     * 路径的 UTF-8 字节数上限，防止损坏的索引文件导致分配过大的数组。
+     */
+    private static final int MAX_PATH_BYTES = 1 << 20;
+
+    private static final int SHA256_LENGTH = 32;
+
+    private final Path indexFile;
+
+    private final Map<String, Record> records;
+
+    private ChecksumIndex(Path indexFile, Map<String, Record> records) {
+        this.indexFile = indexFile;
+        this.records = records;
+    }
+
+    /**
+     * 读取索引文件，文件不存在时返回空索引。
+     *
+     * @throws IOException 读取失败或文件不是有效的索引
+     */
+    public static ChecksumIndex load(Path indexFile) throws IOException {
+        Map<String, Record> records = new TreeMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是校验索引文件: " + indexFile);
+            }
+            int version = in.readUnsignedShort();
+            if (version != VERSION && version != VERSION_MODIFIED_UTF8) {
+                throw new IOException("不支持的索引版本: " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = version == VERSION_MODIFIED_UTF8 ? in.readUTF() : readPath(in);
+                long size = in.readLong();
+                long modifiedNanos = in.readLong();
+                long inode = in.readLong();
+                long crc32 = in.readInt() & 0xFFFFFFFFL;
+                byte[] sha256 = new byte[SHA256_LENGTH];
+                in.readFully(sha256);
+                long verifiedAt = in.readLong();
+                records.put(path, new Record(path, size, modifiedNanos, inode, crc32, sha256, verifiedAt));
+            }
+        } catch (NoSuchFileException e) {
+            return new ChecksumIndex(indexFile, records);
+        }
+        return new ChecksumIndex(indexFile, records);
+    }
+
+    private static String readPath(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PATH_BYTES) {
+            throw new IOException("无效的路径长度: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 把索引写回 {@link #load(Path)} 时指定的文件。
+     */
+    public void save() throws IOException {
+        Path parent = indexFile.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, indexFile.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(records.size());
+                for (Record record : records.values()) {
+                    byte[] path = record.path.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(path.length);
+                    out.write(path);
+                    out.writeLong(record.size);
+                    out.writeLong(record.modifiedNanos);
+                    out.writeLong(record.inode);
+                    out.writeInt((int) record.crc32);
+                    out.write(record.sha256);
+                    out.writeLong(record.verifiedAt);
+                }
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 只重新计算新增和元数据变化的文件，不做定期全量读取。
+     */
+    public ScanResult scan(Path root) throws IOException {
+        return scan(root, null, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param scrubInterval 超过该间隔未实际读取过的文件也会重新读取；{@link Duration#ZERO} 表示全部重新读取，
+     *                      null 表示只依据元数据
+     * @param parallelism 同时读取的文件数
+     */
+    public ScanResult scan(Path root, Duration scrubInterval, int parallelism) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须为正数: " + parallelism);
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        List<Stat> stats = stat(root, indexFile);
+
+        List<Stat> toRead = new ArrayList<>();
+        int unchanged = 0;
+        Set<String> seen = new HashSet<>(stats.size() * 2);
+        for (Stat stat : stats) {
+            seen.add(stat.relativePath);
+            Record previous = records.get(stat.relativePath);
+            if (previous == null || !previous.sameMetadata(stat) || previous.isRacy()) {
+                toRead.add(stat);
+            } else if (scrubInterval != null && now - previous.verifiedAt >= scrubInterval.toMillis()) {
+                stat.scrub = true;
+                toRead.add(stat);
+            } else {
+                unchanged++;
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String path : records.keySet()) {
+            if (!seen.contains(path)) {
+                removed.add(path);
+            }
+        }
+
+        // 先读取全部变化的文件，读取失败时索引保持扫描前的状态
+        List<ChecksumManifest.Entry> entries = read(toRead, parallelism);
+        records.keySet().removeAll(removed);
+        int updated = 0;
+        int scrubbed = 0;
+        long bytesRead = 0;
+        List<String> corrupted = new ArrayList<>();
+        for (int i = 0; i < toRead.size(); i++) {
+            Stat stat = toRead.get(i);
+            ChecksumManifest.Entry entry = entries.get(i);
+            bytesRead += entry.getSize();
+            Record record = new Record(stat.relativePath, entry.getSize(), stat.modifiedNanos, stat.inode,
+                    entry.getCrc32(), HexCodec.decode(entry.getSha256()), now);
+            if (stat.scrub) {
+                scrubbed++;
+                Record previous = records.get(stat.relativePath);
+                if (!previous.sameContent(record)) {
+                    corrupted.add(stat.relativePath);
+                    continue;
+                }
+            } else {
+                updated++;
+            }
+            records.put(stat.relativePath, record);
+        }
+        return new ScanResult(unchanged, updated, removed.size(), scrubbed, corrupted, bytesRead, System.nanoTime() - start);
+    }
+
+    private static List<ChecksumManifest.Entry> read(List<Stat> files, int parallelism) throws IOException {
+        ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[ChecksumManifest.DEFAULT_BLOCK_SIZE]);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<ChecksumManifest.Entry>> futures = new ArrayList<>(files.size());
+            for (Stat stat : files) {
+                futures.add(executor.submit(() ->
+                        ChecksumManifest.checksum(stat.relativePath, stat.path, buffers.get())));
+            }
+            List<ChecksumManifest.Entry> entries = new ArrayList<>(files.size());
+            for (Future<ChecksumManifest.Entry> future : futures) {
+                entries.add(future.get());
+            }
+            return entries;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("扫描时被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("计算校验和失败", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Stat> stat(Path root, Path indexFile) throws IOException {
+        List<Stat> stats = new ArrayList<>();
+        Path index = indexFile.toAbsolutePath().normalize();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                // 索引文件本身（及保存时的临时文件）放在被扫描目录中时不计入
+                if (attrs.isRegularFile() && !isIndexFile(file.toAbsolutePath().normalize(), index)) {
+                    stats.add(new Stat(file, ChecksumManifest.relativePath(root, file), attrs.size(),
+                            attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS), inode(file)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return stats;
+    }
+
+    private static boolean isIndexFile(Path file, Path index) {
+        if (file.equals(index)) {
+            return true;
+        }
+        String name = file.getFileName().toString();
+        return file.getParent().equals(index.getParent())
+                && name.startsWith(index.getFileName().toString()) && name.endsWith(".tmp");
+    }
+
+    private static long inode(Path file) {
+        try {
+            Object inode = Files.getAttribute(file, "unix:ino");
+            return inode instanceof Number ? ((Number) inode).longValue() : -1;
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+            return -1;
+        }
+    }
+
+    public Optional<Record> get(String path) {
+        return Optional.ofNullable(records.get(path));
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    private static final class Stat {
+
+        private final Path path;
+        private final String relativePath;
+        private final long size;
+        private final long modifiedNanos;
+        private final long inode;
+        private boolean scrub;
+
+        Stat(Path path, String relativePath, long size, long modifiedNanos, long inode) {
+            this.path = path;
+            this.relativePath = relativePath;
+            this.size = size;
+            this.modifiedNanos = modifiedNanos;
+            this.inode = inode;
+        }
+    }
+
+    /**
+     * 索引中的一个文件。
+     */
+    public static final class Record {
+
+        private final String path;
+
+        private final long size;
+
+        private final long modifiedNanos;
+
+        private final long inode;
+
+        private final long crc32;
+
+        private final byte[] sha256;
+
+        private final long verifiedAt;
+
+        Record(String path, long size, long modifiedNanos, long inode, long crc32, byte[] sha256, long verifiedAt) {
+            this.path = path;
+            this.size = size;
+            this.modifiedNanos = modifiedNanos;
+            this.inode = inode;
+            this.crc32 = crc32;
+            this.sha256 = sha256;
+            this.verifiedAt = verifiedAt;
+        }
+
+        boolean sameMetadata(Stat stat) {
+            return size == stat.size && modifiedNanos == stat.modifiedNanos && inode == stat.inode;
+        }
+
+        /**
+         * 修改时间与读取时刻过于接近，同一时间戳精度内的改写无法从元数据中发现。
+         */
+        boolean isRacy() {
+            return modifiedNanos > TimeUnit.MILLISECONDS.toNanos(verifiedAt) - RACY_WINDOW_NANOS;
+        }
+
+        boolean sameContent(Record other) {
+            return size == other.size && crc32 == other.crc32 && MessageDigest.isEqual(sha256, other.sha256);
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModifiedNanos() {
+            return modifiedNanos;
+        }
+
+        /**
+         * @return inode，平台不支持时为 -1
+         */
+        public long getInode() {
+            return inode;
+        }
+
+        public long getCrc32() {
+            return crc32;
+        }
+
+        public String getSha256() {
+            return HexCodec.encodeToString(sha256);
+        }
+
+        /**
+         * @return 上次实际读取文件内容的时间（毫秒）
+         */
+        public long getVerifiedAt() {
+            return verifiedAt;
+        }
+    }
+
+    /**
+     * 一次扫描的结果。
+     */
+    public static final class ScanResult {
+
+        private final int unchanged;
+
+        private final int updated;
+
+        private final int removed;
+
+        private final int scrubbed;
+
+        private final List<String> corrupted;
+
+        private final long bytesRead;
+
+        private final long elapsedNanos;
+
+        ScanResult(int unchanged, int updated, int removed, int scrubbed, List<String> corrupted,
+                   long bytesRead, long elapsedNanos) {
+            this.unchanged = unchanged;
+            this.updated = updated;
+            this.removed = removed;
+            this.scrubbed = scrubbed;
+            this.corrupted = Collections.unmodifiableList(corrupted);
+            this.bytesRead = bytesRead;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return 只做了 stat、没有读取内容的文件数
+         */
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        /**
+         * @return 新增或元数据变化后重新计算的文件数
+         */
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        /**
+         * @return 元数据未变但因定期全量读取而重新校验的文件数
+         */
+        public int getScrubbed() {
+            return scrubbed;
+        }
+
+        /**
+         * @return 元数据未变但内容与索引不一致的文件
+         */
+        public List<String> getCorrupted() {
+            return corrupted;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("unchanged=%d updated=%d removed=%d scrubbed=%d corrupted=%d read=%d B elapsed=%.3f s",
+                    unchanged, updated, removed, scrubbed, corrupted.size(), bytesRead, elapsedNanos / 1e9);
+        }
+    }
+}
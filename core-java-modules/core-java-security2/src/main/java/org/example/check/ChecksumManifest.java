@@ -0,0 +1,441 @@
+package org.example.check;
+
+import org.example.hash.DigestAlgorithms;
+import org.example.hash.DigestPool;
+import org.example.hash.HexCodec;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * 目录校验清单：并发计算目录下每个普通文件的大小、CRC32 和 SHA-256，按相对路径排序后写成文本清单。
+ *
+ * 每个文件只读取一遍，同一个块同时送入 CRC32 和 SHA-256。每个线程复用一个块大小的读缓冲区，
+ * 所以同时在内存中的数据不超过 parallelism * 块大小，与文件大小无关。文件按大小从大到小提交，
+ * 避免最大的文件最后才开始而拖长总耗时。
+ *
+ * 无法访问的目录或文件、以及遍历后被删除的文件不会中断生成，而是跳过并记入 {@link Stats#getSkipped()}。
+ *
+ * 清单每行一个文件，格式为 {@code <sha256> <crc32> <size> <path>}，路径使用 '/' 分隔并放在行尾，
+ * 因此可以包含空格。路径中的 '\'、换行和回车分别写成 {@code \\}、{@code \n} 和 {@code \r}，
+ * 文件名中的换行不会破坏清单的行结构。
+ */
+public final class ChecksumManifest {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    private final List<Entry> entries;
+
+    private final Stats stats;
+
+    private ChecksumManifest(List<Entry> entries, Stats stats) {
+        this.entries = entries;
+        this.stats = stats;
+    }
+
+    /**
+     * 使用与 CPU 核数相同的线程数生成清单。
+     */
+    public static ChecksumManifest build(Path root) throws IOException {
+        return build(root, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism 同时处理的文件数，读缓冲区共占用 parallelism * {@link #DEFAULT_BLOCK_SIZE} 字节
+     */
+    public static ChecksumManifest build(Path root, int parallelism) throws IOException {
+        return build(root, parallelism, DEFAULT_BLOCK_SIZE);
+    }
+
+    static ChecksumManifest build(Path root, int parallelism, int blockSize) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须为正数: " + parallelism);
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("块大小必须为正数: " + blockSize);
+        }
+        long start = System.nanoTime();
+        FileCollector collector = new FileCollector(root);
+        Files.walkFileTree(root, collector);
+        List<FileTask> files = collector.files;
+        List<String> skipped = Collections.synchronizedList(collector.skipped());
+        files.sort(Comparator.comparingLong((FileTask task) -> task.size).reversed());
+
+        ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[blockSize]);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<Entry> entries = new ArrayList<>(files.size());
+        try {
+            List<Future<Entry>> futures = new ArrayList<>(files.size());
+            for (FileTask file : files) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return checksum(file.relativePath, file.path, buffers.get());
+                    } catch (NoSuchFileException | AccessDeniedException e) {
+                        skipped.add(file.relativePath);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Entry> future : futures) {
+                Entry entry = future.get();
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("生成校验清单时被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("计算校验和失败", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        entries.sort(Comparator.comparing(Entry::getPath));
+        long bytes = 0;
+        for (Entry entry : entries) {
+            bytes += entry.getSize();
+        }
+        List<String> skippedPaths = new ArrayList<>(skipped);
+        Collections.sort(skippedPaths);
+        return new ChecksumManifest(List.copyOf(entries),
+                new Stats(entries.size(), bytes, skippedPaths, System.nanoTime() - start));
+    }
+
+    /**
+     * 单遍计算一个文件的 CRC32 与 SHA-256。
+     */
+    static Entry checksum(String relativePath, Path file, byte[] buffer) throws IOException {
+        return checksum(relativePath, file, buffer, read -> { });
+    }
+
+    /**
+     * @param onRead 每读取一块后以该块的字节数回调，用于统计进度
+     */
+    static Entry checksum(String relativePath, Path file, byte[] buffer, LongConsumer onRead) throws IOException {
+        CRC32 crc32 = new CRC32();
+        // 使用共享池而不是 ThreadLocal，在虚拟线程上调用时不会为每个任务新建摘要实例
+        try (DigestPool.Lease lease = DigestPool.borrow(DigestAlgorithms.SHA_256);
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest sha256 = lease.digest();
+            long size = channel.size();
+            ByteBuffer block = ByteBuffer.wrap(buffer);
+            long position = 0;
+            while (position < size) {
+                block.clear().limit((int) Math.min(buffer.length, size - position));
+                int read = channel.read(block, position);
+                if (read < 0) {
+                    throw new IOException("读取过程中文件被截断: " + file);
+                }
+                crc32.update(buffer, 0, read);
+                sha256.update(buffer, 0, read);
+                position += read;
+                onRead.accept(read);
+            }
+            return new Entry(relativePath, size, crc32.getValue(), HexCodec.encodeToString(sha256.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("缺少算法: " + DigestAlgorithms.SHA_256, e);
+        }
+    }
+
+    /**
+     * 收集 root 下的普通文件；无法访问的条目记入 skipped 后继续遍历，只有 root 本身无法访问时才失败。
+     */
+    static final class FileCollector extends SimpleFileVisitor<Path> {
+
+        private final Path root;
+
+        private final List<FileTask> files = new ArrayList<>();
+
+        private final List<String> skipped = new ArrayList<>();
+
+        FileCollector(Path root) {
+            this.root = root;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (attrs.isRegularFile()) {
+                files.add(new FileTask(file, relativePath(root, file), attrs.size()));
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+            if (file.equals(root)) {
+                throw exc;
+            }
+            skipped.add(relativePath(root, file));
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            // 目录在遍历途中无法继续读取时，已经收集到的文件保留，目录本身记为跳过
+            if (exc != null && !dir.equals(root)) {
+                skipped.add(relativePath(root, dir));
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        List<String> skipped() {
+            return skipped;
+        }
+    }
+
+    static String relativePath(Path root, Path file) {
+        Path relative = root.relativize(file);
+        StringBuilder path = new StringBuilder();
+        for (Path name : relative) {
+            if (path.length() > 0) {
+                path.append('/');
+            }
+            path.append(name);
+        }
+        return path.toString();
+    }
+
+    /**
+     * 写出清单，已存在的文件会被覆盖。
+     */
+    public void write(Path manifest) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries) {
+                writer.write(entry.toLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * 读取 {@link #write(Path)} 写出的清单。
+     */
+    public static List<Entry> read(Path manifest) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) {
+                entries.add(Entry.parse(line));
+            }
+        }
+        return entries;
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public Stats stats() {
+        return stats;
+    }
+
+    private static final class FileTask {
+
+        private final Path path;
+        private final String relativePath;
+        private final long size;
+
+        FileTask(Path path, String relativePath, long size) {
+            this.path = path;
+            this.relativePath = relativePath;
+            this.size = size;
+        }
+    }
+
+    /**
+     * 清单中的一行：相对路径、字节数、CRC32 和十六进制 SHA-256。
+     */
+    public static final class Entry {
+
+        private final String path;
+
+        private final long size;
+
+        private final long crc32;
+
+        private final String sha256;
+
+        public Entry(String path, long size, long crc32, String sha256) {
+            this.path = path;
+            this.size = size;
+            this.crc32 = crc32;
+            this.sha256 = sha256;
+        }
+
+        static Entry parse(String line) {
+            String[] fields = line.split(" ", 4);
+            if (fields.length != 4) {
+                throw new IllegalArgumentException("无效的清单行: " + line);
+            }
+            return new Entry(unescape(fields[3]), Long.parseLong(fields[2]), Long.parseLong(fields[1], 16), fields[0]);
+        }
+
+        String toLine() {
+            return sha256 + ' ' + String.format("%08x", crc32) + ' ' + size + ' ' + escape(path);
+        }
+
+        private static String escape(String path) {
+            if (path.indexOf('\\') < 0 && path.indexOf('\n') < 0 && path.indexOf('\r') < 0) {
+                return path;
+            }
+            StringBuilder escaped = new StringBuilder(path.length() + 8);
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (c == '\\') {
+                    escaped.append("\\\\");
+                } else if (c == '\n') {
+                    escaped.append("\\n");
+                } else if (c == '\r') {
+                    escaped.append("\\r");
+                } else {
+                    escaped.append(c);
+                }
+            }
+            return escaped.toString();
+        }
+
+        private static String unescape(String path) {
+            if (path.indexOf('\\') < 0) {
+                return path;
+            }
+            StringBuilder unescaped = new StringBuilder(path.length());
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (c != '\\') {
+                    unescaped.append(c);
+                    continue;
+                }
+                char next = ++i < path.length() ? path.charAt(i) : 0;
+                if (next == '\\') {
+                    unescaped.append('\\');
+                } else if (next == 'n') {
+                    unescaped.append('\n');
+                } else if (next == 'r') {
+                    unescaped.append('\r');
+                } else {
+                    throw new IllegalArgumentException("无效的转义路径: " + path);
+                }
+            }
+            return unescaped.toString();
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getCrc32() {
+            return crc32;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            return size == other.size && crc32 == other.crc32 && path.equals(other.path) && sha256.equals(other.sha256);
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + sha256.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return toLine();
+        }
+    }
+
+    /**
+     * 一次生成的统计信息。
+     */
+    public static final class Stats {
+
+        private final int files;
+
+        private final long bytes;
+
+        private final List<String> skipped;
+
+        private final long elapsedNanos;
+
+        Stats(int files, long bytes, List<String> skipped, long elapsedNanos) {
+            this.files = files;
+            this.bytes = bytes;
+            this.skipped = Collections.unmodifiableList(skipped);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return 因无法访问或在生成过程中被删除而未列入清单的相对路径，按路径排序
+         */
+        public List<String> getSkipped() {
+            return skipped;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getFilesPerSecond() {
+            return files * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        public double getMegabytesPerSecond() {
+            return bytes * 1e9 / Math.max(1, elapsedNanos) / (1 << 20);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("files=%d bytes=%d skipped=%d elapsed=%.3f s (%.1f files/s, %.1f MB/s)",
+                    files, bytes, skipped.size(), elapsedNanos / 1e9, getFilesPerSecond(), getMegabytesPerSecond());
+        }
+    }
+}
@@ -1,16 +1,36 @@
 package org.example.check;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.CRC32;
-import java.util.zip.CheckedInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.zip.Checksum;
 
 /**
- * ChecksumUtils 类提供了一些工具方法来计算字节数据的CRC32校验和。
+ * ChecksumUtils 类提供了一些工具方法来计算字节数据的校验和，算法由 {@link ChecksumAlgorithm} 指定，
+ * 支持字节数组、ByteBuffer、输入流和 FileChannel 四种数据来源。
  */
 public class ChecksumUtils {
 
+    /**
+     * 读取 FileChannel 时使用的直接缓冲区大小。
+     */
+    static final int CHANNEL_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * 并行计算时每个分段的默认大小。
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 << 20;
+
+    private static final ThreadLocal<ByteBuffer> CHANNEL_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE));
+
     /**
      * 计算字节数组的CRC32校验和。
      *
@@ -18,9 +38,7 @@ public class ChecksumUtils {
      * @return 字节数组的CRC32校验和。
      */
     public static long getChecksumCRC32(byte[] bytes) {
-        Checksum crc32 = new CRC32();
-        crc32.update(bytes, 0, bytes.length);
-        return crc32.getValue();
+        return getChecksum(ChecksumAlgorithm.CRC32, bytes);
     }
 
     /**
@@ -33,10 +51,177 @@ public class ChecksumUtils {
      * @throws IOException 如果读取输入流时发生错误。
      */
     public static long getChecksumCRC32(InputStream stream, int bufferSize) throws IOException {
-        CheckedInputStream checkedInputStream = new CheckedInputStream(stream, new CRC32());
+        return getChecksum(ChecksumAlgorithm.CRC32, stream, bufferSize);
+    }
+
+    /**
+     * 计算字节数组的校验和。
+     *
+     * @param algorithm 校验和算法。
+     * @param bytes 待计算校验和的字节数组。
+     * @return 字节数组的校验和。
+     */
+    public static long getChecksum(ChecksumAlgorithm algorithm, byte[] bytes) {
+        Checksum checksum = algorithm.newChecksum();
+        checksum.update(bytes, 0, bytes.length);
+        return checksum.getValue();
+    }
+
+    /**
+     * 计算 ByteBuffer 剩余内容的校验和，不改变 buffer 的 position。
+     * 直接缓冲区不会被复制到堆内数组。
+     *
+     * @param algorithm 校验和算法。
+     * @param buffer 待计算校验和的缓冲区。
+     * @return 缓冲区剩余内容的校验和。
+     */
+    public static long getChecksum(ChecksumAlgorithm algorithm, ByteBuffer buffer) {
+        Checksum checksum = algorithm.newChecksum();
+        checksum.update(buffer.duplicate());
+        return checksum.getValue();
+    }
+
+    /**
+     * 从输入流中计算校验和，读取到流末尾为止，不会关闭流。
+     *
+     * @param algorithm 校验和算法。
+     * @param stream 待计算校验和的输入流。
+     * @param bufferSize 读取数据时使用的缓冲区大小。
+     * @return 输入流所有数据的校验和。
+     * @throws IOException 如果读取输入流时发生错误。
+     */
+    public static long getChecksum(ChecksumAlgorithm algorithm, InputStream stream, int bufferSize) throws IOException {
+        Checksum checksum = algorithm.newChecksum();
         byte[] buffer = new byte[bufferSize];
-        while (checkedInputStream.read(buffer, 0, buffer.length) >= 0) {}
-        return checkedInputStream.getChecksum().getValue();
+        int read;
+        while ((read = stream.read(buffer, 0, buffer.length)) >= 0) {
+            checksum.update(buffer, 0, read);
+        }
+        return checksum.getValue();
     }
-}
 
+    /**
+     * 计算整个文件的校验和。使用按位置读取，不改变 channel 的 position，
+     * 读取缓冲区为每个线程复用的直接缓冲区。
+     *
+     * @param algorithm 校验和算法。
+     * @param channel 待计算校验和的文件。
+     * @return 文件内容的校验和。
+     * @throws java.io.EOFException 如果文件在读取过程中变短。
+     * @throws IOException 如果读取文件时发生错误。
+     */
+    public static long getChecksum(ChecksumAlgorithm algorithm, FileChannel channel) throws IOException {
+        Checksum checksum = algorithm.newChecksum();
+        update(checksum, channel, 0, channel.size());
+        return checksum.getValue();
+    }
+
+    /**
+     * 在公共 ForkJoinPool 上并行计算文件的 CRC32 或 CRC32C 校验和，结果与顺序计算相同。
+     *
+     * @param algorithm 只支持 {@link ChecksumAlgorithm#CRC32} 和 {@link ChecksumAlgorithm#CRC32C}。
+     * @param file 待计算校验和的文件。
+     * @return 文件内容的校验和。
+     * @throws IOException 如果读取文件时发生错误。
+     */
+    public static long getChecksumParallel(ChecksumAlgorithm algorithm, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return getChecksumParallel(algorithm, channel, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * 把文件按 segmentSize 切分，各分段在 pool 中独立计算 CRC，再用 {@link Crc32Combine} 两两合并。
+     * 小于两个分段的文件直接在当前线程顺序计算。
+     *
+     * @param algorithm 只支持 {@link ChecksumAlgorithm#CRC32} 和 {@link ChecksumAlgorithm#CRC32C}。
+     * @param channel 待计算校验和的文件，只使用按位置读取，可以被多个线程共享。
+     * @param segmentSize 分段大小（字节）。
+     * @param pool 执行分段计算的线程池。
+     * @return 文件内容的校验和。
+     * @throws IOException 如果读取文件时发生错误。
+     */
+    public static long getChecksumParallel(ChecksumAlgorithm algorithm, FileChannel channel, int segmentSize,
+                                           ForkJoinPool pool) throws IOException {
+        int polynomial = Crc32Combine.polynomial(algorithm);
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("分段大小必须为正数: " + segmentSize);
+        }
+        long size = channel.size();
+        long segments = (size + segmentSize - 1) / segmentSize;
+        if (segments < 2) {
+            return getChecksum(algorithm, channel);
+        }
+        try {
+            return pool.invoke(new SegmentTask(algorithm, polynomial, channel, segmentSize, size, 0, segments));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void update(Checksum checksum, FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer buffer = CHANNEL_BUFFER.get();
+        long end = position + length;
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("文件在读取过程中被截断: 预期读到 " + end + " 字节处，实际在 " + position + " 处结束");
+            }
+            buffer.flip();
+            checksum.update(buffer);
+            position += read;
+        }
+    }
+
+    /**
+     * 递归二分分段区间 [from, to)，返回该区间数据的 CRC；合并时只需要右半区间的字节数。
+     */
+    @SuppressWarnings("serial")
+    private static final class SegmentTask extends RecursiveTask<Long> {
+
+        private final ChecksumAlgorithm algorithm;
+        private final int polynomial;
+        private final FileChannel channel;
+        private final int segmentSize;
+        private final long size;
+        private final long from;
+        private final long to;
+
+        SegmentTask(ChecksumAlgorithm algorithm, int polynomial, FileChannel channel, int segmentSize, long size,
+                    long from, long to) {
+            this.algorithm = algorithm;
+            this.polynomial = polynomial;
+            this.channel = channel;
+            this.segmentSize = segmentSize;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > 1) {
+                long mid = (from + to) >>> 1;
+                SegmentTask left = new SegmentTask(algorithm, polynomial, channel, segmentSize, size, from, mid);
+                SegmentTask right = new SegmentTask(algorithm, polynomial, channel, segmentSize, size, mid, to);
+                left.fork();
+                long rightCrc = right.compute();
+                long leftCrc = left.join();
+                long rightLength = Math.min(size, to * segmentSize) - mid * segmentSize;
+                return Crc32Combine.combine(polynomial, leftCrc, rightCrc, rightLength);
+            }
+            long position = from * segmentSize;
+            Checksum checksum = algorithm.newChecksum();
+            try {
+                update(checksum, channel, position, Math.min(segmentSize, size - position));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return checksum.getValue();
+        }
+    }
+}
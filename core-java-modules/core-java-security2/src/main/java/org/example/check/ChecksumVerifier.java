@@ -0,0 +1,349 @@
+package org.example.check;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 {@link ChecksumManifest} 清单并发校验文件，逐个给出 OK / MISMATCH / MISSING / UNREADABLE 结果。
+ *
+ * 每个文件一个任务：运行在 JDK 21 及以上时使用虚拟线程，否则退回到与 I/O 并发数相同大小的线程池。
+ * 同时读取的文件数由 maxConcurrentIo 个读缓冲区限制，任务必须先取得缓冲区才能打开文件，
+ * 所以即使有上万个虚拟线程，磁盘上也只有 maxConcurrentIo 个读取在进行。
+ *
+ * 大小不一致的文件不读取内容直接判为 MISMATCH。failFast 为 true 时，出现第一个不是 OK 的结果
+ * （MISMATCH、MISSING 或 UNREADABLE）后尚未开始的文件不再校验，报告中 {@link Report#isAborted()} 为 true。
+ *
+ * 清单中的路径按 root 解析，规范化后位于 root 之外的路径（"../"、绝对路径）会使整个校验被拒绝。
+ *
+ * 实例本身不保存校验状态，可以被多个线程同时使用。需要查看进度时向
+ * {@link #verify(Path, List, Progress)} 传入一个 {@link Progress}，在其他线程读取。
+ */
+public final class ChecksumVerifier {
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+
+    private final int maxConcurrentIo;
+
+    private final boolean failFast;
+
+    private final int bufferSize;
+
+    public ChecksumVerifier(int maxConcurrentIo, boolean failFast) {
+        this(maxConcurrentIo, failFast, ChecksumManifest.DEFAULT_BLOCK_SIZE);
+    }
+
+    ChecksumVerifier(int maxConcurrentIo, boolean failFast, int bufferSize) {
+        if (maxConcurrentIo <= 0) {
+            throw new IllegalArgumentException("I/O 并发数必须为正数: " + maxConcurrentIo);
+        }
+        this.maxConcurrentIo = maxConcurrentIo;
+        this.failFast = failFast;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 校验 root 下的文件是否与清单一致。清单中没有列出的文件不会被检查。
+     *
+     * @throws IllegalArgumentException 清单中有位于 root 之外的路径
+     */
+    public Report verify(Path root, List<ChecksumManifest.Entry> expected) throws IOException {
+        return verify(root, expected, new Progress());
+    }
+
+    /**
+     * @param progress 本次校验的进度，每次调用使用一个新的实例
+     */
+    public Report verify(Path root, List<ChecksumManifest.Entry> expected, Progress progress) throws IOException {
+        Path base = root.toAbsolutePath().normalize();
+        Path realBase = realPath(base);
+        List<Path> files = new ArrayList<>(expected.size());
+        for (ChecksumManifest.Entry entry : expected) {
+            files.add(resolve(base, entry.getPath()));
+        }
+        progress.startNanos = System.nanoTime();
+
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(maxConcurrentIo);
+        for (int i = 0; i < maxConcurrentIo; i++) {
+            buffers.add(new byte[bufferSize]);
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+
+        ExecutorService executor = newExecutor(maxConcurrentIo);
+        List<FileResult> results = new ArrayList<>(expected.size());
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                ChecksumManifest.Entry entry = expected.get(i);
+                Path file = files.get(i);
+                futures.add(executor.submit(() -> {
+                    if (stop.get()) {
+                        return null;
+                    }
+                    byte[] buffer = buffers.take();
+                    try {
+                        if (stop.get()) {
+                            return null;
+                        }
+                        FileResult result = verify(realBase, file, entry, buffer, progress);
+                        if (failFast && result.getStatus() != Status.OK) {
+                            stop.set(true);
+                        }
+                        progress.files.increment();
+                        return result;
+                    } finally {
+                        buffers.add(buffer);
+                    }
+                }));
+            }
+            for (Future<FileResult> future : futures) {
+                FileResult result = future.get();
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("校验时被中断");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("校验任务失败", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            progress.endNanos = System.nanoTime();
+        }
+        results.sort(Comparator.comparing(FileResult::getPath));
+        return new Report(results, stop.get() && results.size() < expected.size(), progress.getBytesVerified(),
+                progress.endNanos - progress.startNanos);
+    }
+
+    /**
+     * 按 base 解析清单路径，规范化后不在 base 之下的路径被拒绝。
+     */
+    static Path resolve(Path base, String path) {
+        Path file = base.resolve(path).normalize();
+        if (!file.startsWith(base) || file.equals(base)) {
+            throw new IllegalArgumentException("清单路径超出根目录: " + path);
+        }
+        return file;
+    }
+
+    /**
+     * root 本身可能经过符号链接（例如 macOS 的 /tmp），比较前先取得真实路径；root 不存在时原样返回，
+     * 此时每个文件都会报告为 MISSING。
+     */
+    private static Path realPath(Path base) throws IOException {
+        try {
+            return base.toRealPath();
+        } catch (NoSuchFileException e) {
+            return base;
+        }
+    }
+
+    private static FileResult verify(Path realBase, Path lexical, ChecksumManifest.Entry entry, byte[] buffer,
+                                     Progress progress) {
+        try {
+            // resolve 只做了字面检查，根目录内的符号链接仍可能指向外部，按真实路径再检查一次并只读取真实路径
+            Path file = lexical.toRealPath();
+            if (!file.startsWith(realBase)) {
+                return new FileResult(entry.getPath(), Status.UNREADABLE, "符号链接指向根目录之外: " + file);
+            }
+            long size = Files.size(file);
+            if (size != entry.getSize()) {
+                return new FileResult(entry.getPath(), Status.MISMATCH, "大小不一致: " + size + " != " + entry.getSize());
+            }
+            ChecksumManifest.Entry actual = ChecksumManifest.checksum(entry.getPath(), file, buffer, progress.bytes::add);
+            if (actual.getCrc32() != entry.getCrc32()) {
+                return new FileResult(entry.getPath(), Status.MISMATCH, "CRC32 不一致");
+            }
+            if (!actual.getSha256().equalsIgnoreCase(entry.getSha256())) {
+                return new FileResult(entry.getPath(), Status.MISMATCH, "SHA-256 不一致");
+            }
+            return new FileResult(entry.getPath(), Status.OK, null);
+        } catch (NoSuchFileException e) {
+            return new FileResult(entry.getPath(), Status.MISSING, null);
+        } catch (IOException e) {
+            return new FileResult(entry.getPath(), Status.UNREADABLE, e.toString());
+        }
+    }
+
+    static ExecutorService newExecutor(int fallbackThreads) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // 退回到平台线程池
+            }
+        }
+        return Executors.newFixedThreadPool(fallbackThreads);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() 从 JDK 21 开始才有。
+     */
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public enum Status {
+        OK,
+        MISMATCH,
+        MISSING,
+        UNREADABLE
+    }
+
+    /**
+     * 一次校验的进度，可以在校验进行中从其他线程读取。
+     */
+    public static final class Progress {
+
+        private final LongAdder files = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private volatile long startNanos;
+
+        private volatile long endNanos;
+
+        public long getFilesVerified() {
+            return files.sum();
+        }
+
+        public long getBytesVerified() {
+            return bytes.sum();
+        }
+
+        /**
+         * 校验开始以来（结束后为整个校验期间）的平均速度，尚未开始时为 0。
+         */
+        public double getBytesPerSecond() {
+            long start = startNanos;
+            if (start == 0) {
+                return 0;
+            }
+            long end = endNanos == 0 ? System.nanoTime() : endNanos;
+            return bytes.sum() * 1e9 / Math.max(1, end - start);
+        }
+    }
+
+    /**
+     * 单个文件的校验结果。
+     */
+    public static final class FileResult {
+
+        private final String path;
+
+        private final Status status;
+
+        private final String detail;
+
+        FileResult(String path, Status status, String detail) {
+            this.path = path;
+            this.status = status;
+            this.detail = detail;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return 不一致或无法读取的原因，OK 和 MISSING 时为 null
+         */
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return detail == null ? status + " " + path : status + " " + path + " (" + detail + ")";
+        }
+    }
+
+    /**
+     * 一次校验的报告，结果按路径排序。
+     */
+    public static final class Report {
+
+        private final List<FileResult> results;
+
+        private final boolean aborted;
+
+        private final long bytesVerified;
+
+        private final long elapsedNanos;
+
+        Report(List<FileResult> results, boolean aborted, long bytesVerified, long elapsedNanos) {
+            this.results = Collections.unmodifiableList(results);
+            this.aborted = aborted;
+            this.bytesVerified = bytesVerified;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public List<FileResult> getResults() {
+            return results;
+        }
+
+        /**
+         * @return failFast 模式下因发现问题而跳过了部分文件
+         */
+        public boolean isAborted() {
+            return aborted;
+        }
+
+        /**
+         * @return 实际读取的字节数，大小不一致而未读取内容的文件不计入
+         */
+        public long getBytesVerified() {
+            return bytesVerified;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public Map<Status, Integer> counts() {
+            Map<Status, Integer> counts = new EnumMap<>(Status.class);
+            for (Status status : Status.values()) {
+                counts.put(status, 0);
+            }
+            for (FileResult result : results) {
+                counts.merge(result.getStatus(), 1, Integer::sum);
+            }
+            return counts;
+        }
+
+        public boolean isAllOk() {
+            return !aborted && results.stream().allMatch(result -> result.getStatus() == Status.OK);
+        }
+
+        @Override
+        public String toString() {
+            return counts() + (aborted ? " aborted" : "") + String.format(" elapsed=%.3f s", elapsedNanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.check;
+
+/**
+ * CRC32 / CRC32C 的合并运算（与 zlib 的 crc32_combine 相同的 GF(2) 矩阵方法）：
+ * 已知 crc(A)、crc(B) 和 B 的长度，不读取任何数据即可得到 crc(A || B)，
+ * 因此可以把文件分段并行计算后再合并，结果与顺序计算完全一致。
+ *
+ * 每次合并需要 O(log(len2)) 次 32x32 矩阵平方，与数据量相比开销可以忽略。
+ */
+public final class Crc32Combine {
+
+    /**
+     * CRC32（IEEE 802.3）的反射多项式。
+     */
+    static final int CRC32_POLYNOMIAL = 0xEDB88320;
+
+    /**
+     * CRC32C（Castagnoli）的反射多项式。
+     */
+    static final int CRC32C_POLYNOMIAL = 0x82F63B78;
+
+    private static final int GF2_DIM = 32;
+
+    private Crc32Combine() {
+    }
+
+    /**
+     * 合并两段数据的校验和。
+     *
+     * @param algorithm 只支持 {@link ChecksumAlgorithm#CRC32} 和 {@link ChecksumAlgorithm#CRC32C}
+     * @param crc1 第一段数据的校验和
+     * @param crc2 第二段数据的校验和
+     * @param len2 第二段数据的字节数
+     * @return 两段数据首尾相接后的校验和
+     */
+    public static long combine(ChecksumAlgorithm algorithm, long crc1, long crc2, long len2) {
+        return combine(polynomial(algorithm), crc1, crc2, len2);
+    }
+
+    static int polynomial(ChecksumAlgorithm algorithm) {
+        switch (algorithm) {
+            case CRC32:
+                return CRC32_POLYNOMIAL;
+            case CRC32C:
+                return CRC32C_POLYNOMIAL;
+            default:
+                throw new IllegalArgumentException("不支持合并的校验和算法: " + algorithm);
+        }
+    }
+
+    static long combine(int polynomial, long crc1, long crc2, long len2) {
+        if (len2 < 0) {
+            throw new IllegalArgumentException("长度不能为负数: " + len2);
+        }
+        if (len2 == 0) {
+            return crc1;
+        }
+        int[] even = new int[GF2_DIM];
+        int[] odd = new int[GF2_DIM];
+
+        // 一个零比特的运算子
+        odd[0] = polynomial;
+        int row = 1;
+        for (int n = 1; n < GF2_DIM; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // 两个零比特、四个零比特的运算子
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+
+        // 每次平方把运算子作用的零字节数翻倍，按 len2 的二进制位把对应的运算子作用到 crc1 上
+        int crc = (int) crc1;
+        long len = len2;
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len & 1) != 0) {
+                crc = gf2MatrixTimes(even, crc);
+            }
+            len >>>= 1;
+            if (len == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((len & 1) != 0) {
+                crc = gf2MatrixTimes(odd, crc);
+            }
+            len >>>= 1;
+        } while (len != 0);
+
+        return (crc ^ (int) crc2) & 0xFFFFFFFFL;
+    }
+
+    private static int gf2MatrixTimes(int[] matrix, int vector) {
+        int sum = 0;
+        int i = 0;
+        while (vector != 0) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+            vector >>>= 1;
+            i++;
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(int[] square, int[] matrix) {
+        for (int n = 0; n < GF2_DIM; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package org.example.check;
+
+import org.example.hash.DigestProviders;
+import org.example.hash.HexCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Checksum;
+
+/**
+ * 单遍多摘要：同一份数据只读取一次，每个块依次送入所有指定的 {@link MessageDigest} 和 {@link Checksum}，
+ * 例如同时得到 MD5（兼容旧系统）、SHA-256 和 CRC32。
+ *
+ * 既可以作为 {@link OutputStream} 接收写入的数据，也可以用 {@link #digest(InputStream, int, boolean)}
+ * 直接读取输入流。overlapped 为 true 时由一个后台线程读取、调用线程计算，两块缓冲区轮换使用，
+ * 读取下一块的 I/O 与当前块的计算重叠进行。
+ *
+ * 实例不是线程安全的；{@link #result()} 返回结果后所有摘要被重置，可以继续用于下一份数据。
+ * digest 方法失败时同样重置，已送入的部分数据不会混入下一份数据的结果。
+ */
+public final class MultiDigest extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    private final String[] digestAlgorithms;
+
+    private final MessageDigest[] digests;
+
+    private final ChecksumAlgorithm[] checksumAlgorithms;
+
+    private final Checksum[] checksums;
+
+    private long bytes;
+
+    /**
+     * @param digestAlgorithms {@link org.example.hash.DigestAlgorithms} 中的算法名
+     * @param checksumAlgorithms 需要同时计算的校验和
+     */
+    public MultiDigest(Collection<String> digestAlgorithms, Collection<ChecksumAlgorithm> checksumAlgorithms)
+            throws NoSuchAlgorithmException {
+        this.digestAlgorithms = digestAlgorithms.toArray(new String[0]);
+        this.digests = new MessageDigest[this.digestAlgorithms.length];
+        for (int i = 0; i < digests.length; i++) {
+            digests[i] = DigestProviders.newDigest(this.digestAlgorithms[i]);
+        }
+        this.checksumAlgorithms = checksumAlgorithms.toArray(new ChecksumAlgorithm[0]);
+        this.checksums = new Checksum[this.checksumAlgorithms.length];
+        for (int i = 0; i < checksums.length; i++) {
+            checksums[i] = this.checksumAlgorithms[i].newChecksum();
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        for (MessageDigest digest : digests) {
+            digest.update((byte) b);
+        }
+        for (Checksum checksum : checksums) {
+            checksum.update(b);
+        }
+        bytes++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        for (MessageDigest digest : digests) {
+            digest.update(b, off, len);
+        }
+        for (Checksum checksum : checksums) {
+            checksum.update(b, off, len);
+        }
+        bytes += len;
+    }
+
+    /**
+     * 送入 buffer 的剩余内容，完成后 position 等于 limit。
+     */
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        for (MessageDigest digest : digests) {
+            buffer.position(position);
+            digest.update(buffer);
+        }
+        for (Checksum checksum : checksums) {
+            buffer.position(position);
+            checksum.update(buffer);
+        }
+        bytes += buffer.limit() - position;
+        buffer.position(buffer.limit());
+    }
+
+    /**
+     * 在调用线程中按 {@link #DEFAULT_BLOCK_SIZE} 读取整个文件。
+     */
+    public Result digest(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return digest(in, DEFAULT_BLOCK_SIZE, false);
+        }
+    }
+
+    /**
+     * 读取到流末尾并返回结果，不会关闭流。抛出异常时所有摘要和字节数被重置。
+     *
+     * @param blockSize 每次读取的块大小
+     * @param overlapped 为 true 时在后台线程读取，与计算重叠
+     */
+    public Result digest(InputStream in, int blockSize, boolean overlapped) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("块大小必须为正数: " + blockSize);
+        }
+        boolean completed = false;
+        try {
+            Result result = overlapped ? digestOverlapped(in, blockSize) : digestSequential(in, blockSize);
+            completed = true;
+            return result;
+        } finally {
+            if (!completed) {
+                reset();
+            }
+        }
+    }
+
+    private Result digestSequential(InputStream in, int blockSize) throws IOException {
+        byte[] block = new byte[blockSize];
+        int read;
+        while ((read = in.readNBytes(block, 0, blockSize)) > 0) {
+            write(block, 0, read);
+        }
+        return result();
+    }
+
+    private Result digestOverlapped(InputStream in, int blockSize) throws IOException {
+        BlockingQueue<Block> free = new ArrayBlockingQueue<>(2);
+        BlockingQueue<Block> filled = new ArrayBlockingQueue<>(2);
+        free.add(new Block(blockSize));
+        free.add(new Block(blockSize));
+        Thread reader = new Thread(() -> {
+            try {
+                while (true) {
+                    Block block = free.take();
+                    try {
+                        block.length = in.readNBytes(block.data, 0, blockSize);
+                    } catch (IOException e) {
+                        block.error = e;
+                        block.length = 0;
+                    }
+                    filled.put(block);
+                    if (block.length == 0) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "multi-digest-reader");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            while (true) {
+                Block block = filled.take();
+                if (block.error != null) {
+                    throw block.error;
+                }
+                if (block.length == 0) {
+                    return result();
+                }
+                write(block.data, 0, block.length);
+                free.put(block);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("计算摘要时被中断");
+        } finally {
+            // 出错退出时读取线程可能阻塞在 free.take() 上，不中断就会一直持有输入流
+            reader.interrupt();
+        }
+    }
+
+    /**
+     * 返回当前累计数据的全部摘要与校验和，并重置状态。
+     */
+    public Result result() {
+        Map<String, byte[]> digestValues = new LinkedHashMap<>();
+        for (int i = 0; i < digests.length; i++) {
+            digestValues.put(digestAlgorithms[i], digests[i].digest());
+        }
+        Map<ChecksumAlgorithm, Long> checksumValues = new EnumMap<>(ChecksumAlgorithm.class);
+        for (int i = 0; i < checksums.length; i++) {
+            checksumValues.put(checksumAlgorithms[i], checksums[i].getValue());
+            checksums[i].reset();
+        }
+        Result result = new Result(bytes, digestValues, checksumValues);
+        bytes = 0;
+        return result;
+    }
+
+    /**
+     * 丢弃已累计的数据，所有摘要与校验和回到初始状态。
+     */
+    public void reset() {
+        for (MessageDigest digest : digests) {
+            digest.reset();
+        }
+        for (Checksum checksum : checksums) {
+            checksum.reset();
+        }
+        bytes = 0;
+    }
+
+    private static final class Block {
+
+        private final byte[] data;
+        private int length;
+        private IOException error;
+
+        Block(int size) {
+            this.data = new byte[size];
+        }
+    }
+
+    /**
+     * 一次计算的全部结果。
+     */
+    public static final class Result {
+
+        private final long bytes;
+
+        private final Map<String, byte[]> digests;
+
+        private final Map<ChecksumAlgorithm, Long> checksums;
+
+        Result(long bytes, Map<String, byte[]> digests, Map<ChecksumAlgorithm, Long> checksums) {
+            this.bytes = bytes;
+            this.digests = Collections.unmodifiableMap(digests);
+            this.checksums = Collections.unmodifiableMap(checksums);
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public byte[] digest(String algorithm) {
+            byte[] digest = digests.get(algorithm);
+            if (digest == null) {
+                throw new IllegalArgumentException("未计算该摘要: " + algorithm);
+            }
+            return digest.clone();
+        }
+
+        public String hex(String algorithm) {
+            return HexCodec.encodeToString(digest(algorithm));
+        }
+
+        public long checksum(ChecksumAlgorithm algorithm) {
+            Long checksum = checksums.get(algorithm);
+            if (checksum == null) {
+                throw new IllegalArgumentException("未计算该校验和: " + algorithm);
+            }
+            return checksum;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder("bytes=").append(bytes);
+            digests.forEach((algorithm, digest) ->
+                    text.append(' ').append(algorithm).append('=').append(HexCodec.encodeToString(digest)));
+            checksums.forEach((algorithm, checksum) ->
+                    text.append(' ').append(algorithm).append('=').append(Long.toHexString(checksum)));
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.check;
+
+/**
+ * rsync 使用的弱滚动校验和：窗口内字节和 a 与加权和 b 各取低 16 位，值为 {@code a | b << 16}。
+ * 窗口向后滑动一个字节时只需 O(1) 运算即可更新，适合在新文件的每个偏移上查找已知的数据块。
+ *
+ * 碰撞概率较高，只用于快速筛选，命中后还需要用强摘要确认。
+ */
+public final class RollingChecksum {
+
+    private int a;
+
+    private int b;
+
+    private int length;
+
+    /**
+     * 以 data[off, off + len) 作为窗口重新计算。
+     */
+    public void reset(byte[] data, int off, int len) {
+        int sumA = 0;
+        int sumB = 0;
+        for (int i = 0; i < len; i++) {
+            int x = data[off + i] & 0xFF;
+            sumA += x;
+            sumB += (len - i) * x;
+        }
+        a = sumA & 0xFFFF;
+        b = sumB & 0xFFFF;
+        length = len;
+    }
+
+    /**
+     * 窗口向后滑动一个字节：移出 out，移入 in，窗口长度不变。
+     */
+    public void roll(byte out, byte in) {
+        a = (a - (out & 0xFF) + (in & 0xFF)) & 0xFFFF;
+        b = (b - length * (out & 0xFF) + a) & 0xFFFF;
+    }
+
+    public int getValue() {
+        return a | b << 16;
+    }
+
+    /**
+     * 计算 data[off, off + len) 的弱校验和。
+     */
+    public static int of(byte[] data, int off, int len) {
+        RollingChecksum checksum = new RollingChecksum();
+        checksum.reset(data, off, len);
+        return checksum.getValue();
+    }
+}
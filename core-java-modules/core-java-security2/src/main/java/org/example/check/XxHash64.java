@@ -0,0 +1,162 @@
+package org.example.check;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.Checksum;
+
+/**
+ * 纯 Java 实现的 XXH64 非加密哈希（与 xxHash 参考实现的输出一致），以 {@link Checksum} 的形式提供流式计算。
+ * 适合完整性校验和去重，不能用于防篡改。
+ */
+public class XxHash64 implements Checksum {
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE = 32;
+
+    private final long seed;
+
+    private final byte[] pending = new byte[STRIPE];
+
+    private final ByteBuffer pendingView = ByteBuffer.wrap(pending).order(ByteOrder.LITTLE_ENDIAN);
+
+    private int pendingLength;
+
+    private long totalLength;
+
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    public XxHash64() {
+        this(0);
+    }
+
+    public XxHash64(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        v1 = seed + PRIME64_1 + PRIME64_2;
+        v2 = seed + PRIME64_2;
+        v3 = seed;
+        v4 = seed - PRIME64_1;
+        pendingLength = 0;
+        totalLength = 0;
+    }
+
+    @Override
+    public void update(int b) {
+        pending[pendingLength++] = (byte) b;
+        totalLength++;
+        if (pendingLength == STRIPE) {
+            stripe(pendingView, 0, false);
+            pendingLength = 0;
+        }
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        update(ByteBuffer.wrap(b, off, len));
+    }
+
+    /**
+     * 读取 buffer 的剩余内容，完成后 position 等于 limit；堆内与直接缓冲区都按 8 字节一次读取。
+     */
+    @Override
+    public void update(ByteBuffer buffer) {
+        int len = buffer.remaining();
+        totalLength += len;
+        if (pendingLength > 0) {
+            int fill = Math.min(len, STRIPE - pendingLength);
+            buffer.get(pending, pendingLength, fill);
+            pendingLength += fill;
+            len -= fill;
+            if (pendingLength < STRIPE) {
+                return;
+            }
+            stripe(pendingView, 0, false);
+            pendingLength = 0;
+        }
+        boolean swap = buffer.order() != ByteOrder.LITTLE_ENDIAN;
+        int position = buffer.position();
+        int end = position + len - len % STRIPE;
+        while (position < end) {
+            stripe(buffer, position, swap);
+            position += STRIPE;
+        }
+        buffer.position(position);
+        pendingLength = buffer.remaining();
+        buffer.get(pending, 0, pendingLength);
+    }
+
+    @Override
+    public long getValue() {
+        long h;
+        if (totalLength >= STRIPE) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME64_5;
+        }
+        h += totalLength;
+
+        int i = 0;
+        for (; i + 8 <= pendingLength; i += 8) {
+            h ^= round(0, pendingView.getLong(i));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (i + 4 <= pendingLength) {
+            h ^= (pendingView.getInt(i) & 0xFFFFFFFFL) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            i += 4;
+        }
+        for (; i < pendingLength; i++) {
+            h ^= (pending[i] & 0xFFL) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+        }
+
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private void stripe(ByteBuffer buffer, int index, boolean swap) {
+        v1 = round(v1, readLong(buffer, index, swap));
+        v2 = round(v2, readLong(buffer, index + 8, swap));
+        v3 = round(v3, readLong(buffer, index + 16, swap));
+        v4 = round(v4, readLong(buffer, index + 24, swap));
+    }
+
+    private static long readLong(ByteBuffer buffer, int index, boolean swap) {
+        long value = buffer.getLong(index);
+        return swap ? Long.reverseBytes(value) : value;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.hash;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 查表实现的 Base64url（RFC 4648 §5，无填充）编码，与
+ * {@code Base64.getUrlEncoder().withoutPadding()} 输出一致，但可以直接写入调用方提供的缓冲区。
+ */
+public final class Base64UrlCodec {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 写入直接缓冲区时每块的输入字节数，为 3 的倍数，只有最后一块会产生不完整的分组。
+     */
+    private static final int SCRATCH_INPUT = 3 * 1024;
+
+    private static final ThreadLocal<byte[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new byte[encodedLength(SCRATCH_INPUT)]);
+
+    private Base64UrlCodec() {
+    }
+
+    /**
+     * 无填充编码 length 个字节所需的字符数。
+     */
+    public static int encodedLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    public static String encodeToString(byte[] bytes) {
+        byte[] out = new byte[encodedLength(bytes.length)];
+        encode(bytes, 0, bytes.length, out, 0);
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 将 src[srcOff, srcOff + len) 编码到 dst，从 dstOff 开始写入。
+     *
+     * @return 写入的字符数
+     */
+    public static int encode(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        int outLength = checkBounds(src.length, srcOff, len, dst.length, dstOff);
+        int end = srcOff + len - len % 3;
+        int i = srcOff;
+        int o = dstOff;
+        while (i < end) {
+            int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+            dst[o++] = (char) ALPHABET[bits >>> 18];
+            dst[o++] = (char) ALPHABET[(bits >>> 12) & 0x3f];
+            dst[o++] = (char) ALPHABET[(bits >>> 6) & 0x3f];
+            dst[o++] = (char) ALPHABET[bits & 0x3f];
+        }
+        int rest = len % 3;
+        if (rest > 0) {
+            int bits = (src[i] & 0xff) << 16 | (rest == 2 ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[o++] = (char) ALPHABET[bits >>> 18];
+            dst[o++] = (char) ALPHABET[(bits >>> 12) & 0x3f];
+            if (rest == 2) {
+                dst[o] = (char) ALPHABET[(bits >>> 6) & 0x3f];
+            }
+        }
+        return outLength;
+    }
+
+    /**
+     * 将 src[srcOff, srcOff + len) 以 ASCII 编码到 dst，从 dstOff 开始写入。
+     *
+     * @return 写入的字节数
+     */
+    public static int encode(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        int outLength = checkBounds(src.length, srcOff, len, dst.length, dstOff);
+        int end = srcOff + len - len % 3;
+        int i = srcOff;
+        int o = dstOff;
+        while (i < end) {
+            int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+            dst[o++] = ALPHABET[bits >>> 18];
+            dst[o++] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[o++] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[o++] = ALPHABET[bits & 0x3f];
+        }
+        int rest = len % 3;
+        if (rest > 0) {
+            int bits = (src[i] & 0xff) << 16 | (rest == 2 ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[o++] = ALPHABET[bits >>> 18];
+            dst[o++] = ALPHABET[(bits >>> 12) & 0x3f];
+            if (rest == 2) {
+                dst[o] = ALPHABET[(bits >>> 6) & 0x3f];
+            }
+        }
+        return outLength;
+    }
+
+    /**
+     * 将 src[srcOff, srcOff + len) 以 ASCII 写入 dst 的当前位置。
+     *
+     * @return 写入的字节数
+     * @throws BufferOverflowException 如果 dst 剩余空间不足
+     */
+    public static int encode(byte[] src, int srcOff, int len, ByteBuffer dst) {
+        int outLength = encodedLength(len);
+        if (outLength > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            encode(src, srcOff, len, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + outLength);
+            return outLength;
+        }
+        checkBounds(src.length, srcOff, len, outLength, 0);
+        // 直接缓冲区：按块编码到线程私有的数组，再整块写入
+        byte[] scratch = SCRATCH.get();
+        int end = srcOff + len;
+        for (int i = srcOff; i < end; i += SCRATCH_INPUT) {
+            int n = Math.min(SCRATCH_INPUT, end - i);
+            dst.put(scratch, 0, encode(src, i, n, scratch, 0));
+        }
+        return outLength;
+    }
+
+    private static int checkBounds(int srcLength, int srcOff, int len, int dstLength, int dstOff) {
+        if (srcOff < 0 || len < 0 || srcOff > srcLength - len) {
+            throw new IndexOutOfBoundsException("源数组越界: offset=" + srcOff + ", length=" + len);
+        }
+        int outLength = encodedLength(len);
+        if (dstOff < 0 || dstOff > dstLength - outLength) {
+            throw new IndexOutOfBoundsException("目标空间不足: 需要 " + outLength);
+        }
+        return outLength;
+    }
+}
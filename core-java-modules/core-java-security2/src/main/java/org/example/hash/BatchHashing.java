@@ -0,0 +1,145 @@
+package org.example.hash;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 批量计算大量短字符串（ID、邮箱等）的摘要。
+ *
+ * 每个工作单元复用同一个 UTF-8 编码缓冲区和摘要实例，摘要直接写入 {@link DigestBatch}
+ * 的连续数组，避免逐条调用时的 byte[]、摘要对象、结果数组和十六进制字符串分配。
+ * 编码结果与 {@code String.getBytes(StandardCharsets.UTF_8)} 一致。
+ */
+public final class BatchHashing {
+
+    /**
+     * 并行模式下每个任务至少处理的字符串数量。
+     */
+    static final int MIN_PARALLEL_CHUNK = 1024;
+
+    private BatchHashing() {
+    }
+
+    public static DigestBatch hashAll(Iterable<? extends CharSequence> inputs, String algorithm)
+            throws NoSuchAlgorithmException {
+        MessageDigest digest = DigestPool.threadLocal(algorithm);
+        int digestLength = digestLength(digest);
+        int capacity = inputs instanceof Collection ? ((Collection<?>) inputs).size() : 16;
+        byte[] out = new byte[Math.max(1, capacity) * digestLength];
+        Utf8Buffer buffer = new Utf8Buffer();
+        int count = 0;
+        for (CharSequence input : inputs) {
+            if ((count + 1) * digestLength > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length << 1, (count + 1) * digestLength));
+            }
+            buffer.digestInto(digest, input, out, count * digestLength);
+            count++;
+        }
+        return new DigestBatch(out, digestLength, count);
+    }
+
+    /**
+     * 与 {@link #hashAll(Iterable, String)} 结果相同；parallel 为 true 时把批次切分到多个核心上计算。
+     */
+    public static DigestBatch hashAll(List<? extends CharSequence> inputs, String algorithm, boolean parallel)
+            throws NoSuchAlgorithmException {
+        int size = inputs.size();
+        int parts = Math.min(Runtime.getRuntime().availableProcessors() * 4, size / MIN_PARALLEL_CHUNK);
+        if (!parallel || parts < 2) {
+            return hashAll(inputs, algorithm);
+        }
+        int digestLength = digestLength(DigestPool.threadLocal(algorithm));
+        byte[] out = new byte[size * digestLength];
+        IntStream.range(0, parts).parallel().forEach(part -> {
+            int from = (int) ((long) size * part / parts);
+            int to = (int) ((long) size * (part + 1) / parts);
+            try {
+                MessageDigest digest = DigestPool.threadLocal(algorithm);
+                Utf8Buffer buffer = new Utf8Buffer();
+                for (int i = from; i < to; i++) {
+                    buffer.digestInto(digest, inputs.get(i), out, i * digestLength);
+                }
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("缺少算法: " + algorithm, e);
+            }
+        });
+        return new DigestBatch(out, digestLength, size);
+    }
+
+    private static int digestLength(MessageDigest digest) {
+        int length = digest.getDigestLength();
+        if (length <= 0) {
+            throw new IllegalArgumentException("摘要长度未知: " + digest.getAlgorithm());
+        }
+        return length;
+    }
+
+    /**
+     * 可复用的 UTF-8 编码缓冲区。纯 ASCII 输入直接逐字符写入，其他输入交给复用的 CharsetEncoder。
+     */
+    private static final class Utf8Buffer {
+
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .replaceWith(new byte[]{'?'});
+
+        private byte[] bytes = new byte[256];
+
+        private ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        void digestInto(MessageDigest digest, CharSequence input, byte[] out, int offset) {
+            int length = encode(input);
+            digest.update(bytes, 0, length);
+            try {
+                digest.digest(out, offset, out.length - offset);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private int encode(CharSequence input) {
+            int length = input.length();
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                char c = input.charAt(i);
+                if (c >= 0x80) {
+                    return encodeSlow(input);
+                }
+                bytes[i] = (byte) c;
+            }
+            return length;
+        }
+
+        private int encodeSlow(CharSequence input) {
+            ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, (long) input.length() * 3));
+            CharBuffer chars = CharBuffer.wrap(input);
+            buffer.clear();
+            encoder.reset();
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (!result.isUnderflow()) {
+                throw new IllegalStateException("UTF-8 编码失败: " + result);
+            }
+            encoder.flush(buffer);
+            return buffer.position();
+        }
+
+        private void ensureCapacity(int length) {
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length << 1)];
+                buffer = ByteBuffer.wrap(bytes);
+            }
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package org.example.hash;
 
+import java.util.List;
+
 public class DigestAlgorithms {
 
+    public static final String MD5 = "MD5";
     public static final String SHA3_256 = "SHA3-256";
     public static final String SHA_256 = "SHA-256";
+    public static final String SHA_512 = "SHA-512";
     public static final String KECCAK_256 = "Keccak-256";
 
+    public static final List<String> ALL = List.of(MD5, SHA3_256, SHA_256, SHA_512, KECCAK_256);
+
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package org.example.hash;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link BatchHashing} 的结果：所有摘要按输入顺序连续存放在同一个 byte[] 中，
+ * 第 i 个摘要位于 [i * digestLength, (i + 1) * digestLength)。
+ */
+public final class DigestBatch {
+
+    private final byte[] digests;
+
+    private final int digestLength;
+
+    private final int size;
+
+    DigestBatch(byte[] digests, int digestLength, int size) {
+        this.digests = digests;
+        this.digestLength = digestLength;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int digestLength() {
+        return digestLength;
+    }
+
+    /**
+     * 返回底层连续数组（不复制），调用方不应修改。
+     */
+    public byte[] digests() {
+        return digests;
+    }
+
+    public byte[] get(int index) {
+        int offset = offset(index);
+        return Arrays.copyOfRange(digests, offset, offset + digestLength);
+    }
+
+    public String hex(int index) {
+        char[] chars = new char[digestLength << 1];
+        HexCodec.encode(digests, offset(index), digestLength, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * 以大端序把全部摘要转换为 long[]，每个摘要占 digestLength / 8 个元素（长度须为 8 的倍数）。
+     */
+    public long[] toLongArray() {
+        if (digestLength % Long.BYTES != 0) {
+            throw new IllegalStateException("摘要长度不是 8 的倍数: " + digestLength);
+        }
+        long[] longs = new long[size * (digestLength / Long.BYTES)];
+        ByteBuffer.wrap(digests, 0, size * digestLength).asLongBuffer().get(longs);
+        return longs;
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return index * digestLength;
+    }
+}
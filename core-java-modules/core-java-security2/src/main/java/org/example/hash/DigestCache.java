@@ -0,0 +1,119 @@
+package org.example.hash;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对高频重复输入（租户 ID、API Key、固定模板等）的摘要结果做有界缓存，
+ * 可放在 {@link SHA256Hashing}、{@link SHA3Hashing}、{@link Keccak256Hashing} 之前使用。
+ *
+ * 缓存以输入字节为键，按总字节权重限界并以近似 LRU 淘汰（Guava Cache）；超过
+ * maxInputLength 的输入直接计算、不进入缓存，避免大输入挤掉大量小条目。
+ */
+public final class DigestCache {
+
+    /**
+     * 每个条目除键和摘要外的估算开销（对象头、引用、缓存节点）。
+     */
+    static final int ENTRY_OVERHEAD = 96;
+
+    private final String algorithm;
+
+    private final int maxInputLength;
+
+    private final Cache<Key, byte[]> cache;
+
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * @param algorithm      {@link DigestAlgorithms} 中的算法名
+     * @param maxWeightBytes 缓存中所有键和摘要的估算总字节数上限
+     * @param maxInputLength 可缓存的最大输入长度（字节）
+     */
+    public DigestCache(String algorithm, long maxWeightBytes, int maxInputLength) throws NoSuchAlgorithmException {
+        DigestPool.threadLocal(algorithm);
+        this.algorithm = algorithm;
+        this.maxInputLength = maxInputLength;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, byte[] digest) -> key.bytes.length + digest.length + ENTRY_OVERHEAD)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build();
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 返回 input 的摘要（调用方可以修改返回的数组）。
+     */
+    public byte[] digest(byte[] input) throws NoSuchAlgorithmException {
+        if (input.length > maxInputLength) {
+            bypassed.increment();
+            return DigestPool.digest(algorithm, input);
+        }
+        // 查找时直接使用调用方数组，只有未命中需要插入时才复制
+        byte[] cached = cache.getIfPresent(new Key(input));
+        if (cached == null) {
+            cached = DigestPool.digest(algorithm, input);
+            cache.put(new Key(input.clone()), cached);
+        }
+        return cached.clone();
+    }
+
+    public String hashHex(String input) throws NoSuchAlgorithmException {
+        return HexCodec.encodeToString(digest(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 命中、未命中和淘汰次数。
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 因超过 maxInputLength 而未经过缓存的次数。
+     */
+    public long bypassCount() {
+        return bypassed.sum();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static final class Key {
+
+        private final byte[] bytes;
+
+        private final int hash;
+
+        Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hash == ((Key) o).hash && Arrays.equals(bytes, ((Key) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
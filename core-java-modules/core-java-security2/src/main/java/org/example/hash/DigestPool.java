@@ -0,0 +1,170 @@
+package org.example.hash;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按 {@link DigestAlgorithms} 中的算法名复用 {@link MessageDigest} 实例，避免每次调用都做
+ * provider 查找和对象构造。新实例来自 {@link DigestProviders} 为该算法选定的 provider。
+ *
+ * <ul>
+ *     <li>{@link #threadLocal(String)}：平台线程使用，每个线程每种算法一个实例；</li>
+ *     <li>{@link #borrow(String)}：有界共享池，适用于虚拟线程等不宜使用 ThreadLocal 的场景；</li>
+ *     <li>{@link #digest(String, byte[])}：一次性计算，根据当前线程类型自动选择上面两种方式。</li>
+ * </ul>
+ *
+ * 取得的实例都已 reset，且只能在当前线程内使用。
+ */
+public final class DigestPool {
+
+    static final int POOL_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private static final ConcurrentMap<String, ThreadLocal<MessageDigest>> LOCALS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String, BlockingQueue<MessageDigest>> POOLS = new ConcurrentHashMap<>();
+
+    private DigestPool() {
+    }
+
+    /**
+     * 返回当前线程独享的、已 reset 的摘要实例。
+     */
+    public static MessageDigest threadLocal(String algorithm) throws NoSuchAlgorithmException {
+        ThreadLocal<MessageDigest> local = LOCALS.computeIfAbsent(algorithm, key -> new ThreadLocal<>());
+        MessageDigest digest = local.get();
+        if (digest == null) {
+            digest = newDigest(algorithm);
+            local.set(digest);
+        } else {
+            digest.reset();
+        }
+        return digest;
+    }
+
+    /**
+     * 从有界池中借出一个摘要实例，池为空时新建；{@link Lease#close()} 时归还，池满则丢弃。
+     */
+    public static Lease borrow(String algorithm) throws NoSuchAlgorithmException {
+        BlockingQueue<MessageDigest> pool = POOLS.computeIfAbsent(algorithm, key -> new ArrayBlockingQueue<>(POOL_CAPACITY));
+        MessageDigest digest = pool.poll();
+        if (digest == null) {
+            digest = newDigest(algorithm);
+        }
+        return new Lease(pool, digest);
+    }
+
+    /**
+     * 计算 input 的摘要。平台线程走 ThreadLocal，虚拟线程走有界池。
+     */
+    public static byte[] digest(String algorithm, byte[] input) throws NoSuchAlgorithmException {
+        if (!isVirtual(Thread.currentThread())) {
+            return threadLocal(algorithm).digest(input);
+        }
+        try (Lease lease = borrow(algorithm)) {
+            return lease.digest().digest(input);
+        }
+    }
+
+    /**
+     * 计算 input[offset, offset + length) 的摘要，不复制数组。
+     */
+    public static byte[] digest(String algorithm, byte[] input, int offset, int length) throws NoSuchAlgorithmException {
+        if (!isVirtual(Thread.currentThread())) {
+            MessageDigest digest = threadLocal(algorithm);
+            digest.update(input, offset, length);
+            return digest.digest();
+        }
+        try (Lease lease = borrow(algorithm)) {
+            lease.digest().update(input, offset, length);
+            return lease.digest().digest();
+        }
+    }
+
+    /**
+     * 依次计算各缓冲区剩余内容（position 到 limit）拼接后的摘要，堆内与直接缓冲区都不会复制到中间数组，
+     * 也不改变调用方缓冲区的 position。
+     */
+    public static byte[] digest(String algorithm, ByteBuffer... buffers) throws NoSuchAlgorithmException {
+        if (!isVirtual(Thread.currentThread())) {
+            return digest(threadLocal(algorithm), buffers);
+        }
+        try (Lease lease = borrow(algorithm)) {
+            return digest(lease.digest(), buffers);
+        }
+    }
+
+    private static byte[] digest(MessageDigest digest, ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            digest.update(buffer.duplicate());
+        }
+        return digest.digest();
+    }
+
+    static MessageDigest newDigest(String algorithm) throws NoSuchAlgorithmException {
+        return DigestProviders.newDigest(algorithm);
+    }
+
+    static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Thread.isVirtual() 从 JDK 21 开始才有，在更早的 JDK 上所有线程都是平台线程。
+     */
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 从池中借出的摘要实例，配合 try-with-resources 使用。
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final BlockingQueue<MessageDigest> pool;
+
+        private MessageDigest digest;
+
+        private Lease(BlockingQueue<MessageDigest> pool, MessageDigest digest) {
+            this.pool = pool;
+            this.digest = digest;
+        }
+
+        public MessageDigest digest() {
+            if (digest == null) {
+                throw new IllegalStateException("摘要实例已归还");
+            }
+            return digest;
+        }
+
+        @Override
+        public void close() {
+            if (digest != null) {
+                digest.reset();
+                pool.offer(digest);
+                digest = null;
+            }
+        }
+    }
+}
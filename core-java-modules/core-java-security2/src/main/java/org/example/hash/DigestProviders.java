@@ -0,0 +1,174 @@
+package org.example.hash;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 摘要算法的 provider 注册表。
+ *
+ * BouncyCastle 只在第一次使用时注册一次。每种算法默认绑定到优先级最高的 provider，
+ * 与 {@link MessageDigest#getInstance(String)} 的选择相同（JDK 自带的算法即为 SUN），只提供该算法的是 BC 时绑定到 BC。
+ *
+ * 测速选择需要显式调用 {@link #calibrate()}：对所有提供该算法的 provider 交替测量，
+ * 只有其他 provider 比默认 provider 快 {@link #MIN_SPEEDUP} 倍以上时才改为绑定它。
+ * 预热与测量窗口足够让 C2 完成编译，冷启动的 JVM 中解释执行或 C1 的差异不会决定结果。
+ * 应在第一次使用摘要之前调用，{@link DigestPool} 中已经创建的实例不会更换 provider。
+ */
+public final class DigestProviders {
+
+    static final int SAMPLE_SIZE = 4096;
+
+    static final long WARMUP_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+
+    static final long MEASURE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    static final int MEASURE_ROUNDS = 5;
+
+    /**
+     * 其他 provider 的耗时至少要比默认 provider 少这么多倍才会取代它，测量噪声不会让绑定在多次启动之间来回变化。
+     */
+    static final double MIN_SPEEDUP = 1.2;
+
+    private static final ConcurrentMap<String, Provider> SELECTED = new ConcurrentHashMap<>();
+
+    private DigestProviders() {
+    }
+
+    /**
+     * 返回已注册的 BouncyCastle provider，首次调用时注册。
+     */
+    public static Provider bouncyCastle() {
+        return BouncyCastleHolder.PROVIDER;
+    }
+
+    /**
+     * 对 {@link DigestAlgorithms#ALL} 中的全部算法测速并重新绑定，耗时数秒，需要时在应用启动时调用。
+     */
+    public static void calibrate() {
+        for (String algorithm : DigestAlgorithms.ALL) {
+            try {
+                SELECTED.put(algorithm, select(algorithm));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("缺少算法: " + algorithm, e);
+            }
+        }
+    }
+
+    /**
+     * 返回 algorithm 绑定的 provider，未经 {@link #calibrate()} 时为优先级最高的 provider。
+     */
+    public static Provider providerFor(String algorithm) throws NoSuchAlgorithmException {
+        Provider provider = SELECTED.get(algorithm);
+        if (provider != null) {
+            return provider;
+        }
+        provider = defaultProvider(algorithm);
+        Provider existing = SELECTED.putIfAbsent(algorithm, provider);
+        return existing != null ? existing : provider;
+    }
+
+    public static MessageDigest newDigest(String algorithm) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(algorithm, providerFor(algorithm));
+    }
+
+    /**
+     * 已完成选择的算法及其 provider 名称。
+     */
+    public static Map<String, String> selections() {
+        Map<String, String> selections = new TreeMap<>();
+        SELECTED.forEach((algorithm, provider) -> selections.put(algorithm, provider.getName()));
+        return Collections.unmodifiableMap(selections);
+    }
+
+    private static Provider[] candidates(String algorithm) throws NoSuchAlgorithmException {
+        bouncyCastle();
+        Provider[] candidates = Security.getProviders("MessageDigest." + algorithm);
+        if (candidates == null) {
+            throw new NoSuchAlgorithmException(algorithm + " MessageDigest not available");
+        }
+        return candidates;
+    }
+
+    /**
+     * 未测速时绑定的 provider，即 {@link MessageDigest#getInstance(String)} 会选择的 provider。
+     */
+    static Provider defaultProvider(String algorithm) throws NoSuchAlgorithmException {
+        return candidates(algorithm)[0];
+    }
+
+    /**
+     * 测速选择：默认 provider 以外的候选者须比它快 {@link #MIN_SPEEDUP} 倍以上。
+     */
+    static Provider select(String algorithm) throws NoSuchAlgorithmException {
+        Provider[] candidates = candidates(algorithm);
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+        long[] nanos = measure(algorithm, candidates);
+        int fastest = 0;
+        for (int i = 1; i < candidates.length; i++) {
+            if (nanos[i] * MIN_SPEEDUP < nanos[0] && nanos[i] < nanos[fastest]) {
+                fastest = i;
+            }
+        }
+        return candidates[fastest];
+    }
+
+    /**
+     * 依次预热全部候选者后交替测量 {@link #MEASURE_ROUNDS} 轮，取每个候选者每次摘要的最短平均耗时（纳秒）。
+     * 交替测量使 CPU 频率变化和后台编译等干扰平均分摊到各个候选者上。
+     */
+    private static long[] measure(String algorithm, Provider[] candidates) throws NoSuchAlgorithmException {
+        byte[] sample = new byte[SAMPLE_SIZE];
+        MessageDigest[] digests = new MessageDigest[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            digests[i] = MessageDigest.getInstance(algorithm, candidates[i]);
+            run(digests[i], sample, WARMUP_NANOS);
+        }
+        long[] best = new long[candidates.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            for (int i = 0; i < candidates.length; i++) {
+                best[i] = Math.min(best[i], run(digests[i], sample, MEASURE_NANOS));
+            }
+        }
+        return best;
+    }
+
+    private static long run(MessageDigest digest, byte[] sample, long budget) {
+        long start = System.nanoTime();
+        long elapsed;
+        int count = 0;
+        do {
+            sample[0] = digest.digest(sample)[0];
+            count++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget);
+        return elapsed / count;
+    }
+
+    private static final class BouncyCastleHolder {
+
+        static final Provider PROVIDER = register();
+
+        private static Provider register() {
+            Provider registered = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+            if (registered != null) {
+                return registered;
+            }
+            Security.addProvider(new BouncyCastleProvider());
+            return Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+        }
+    }
+}
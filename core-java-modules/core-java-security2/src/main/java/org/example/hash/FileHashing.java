@@ -0,0 +1,97 @@
+package org.example.hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 以固定内存对文件计算摘要，支持 {@link DigestAlgorithms} 中的全部算法。
+ *
+ * 文件不超过 {@link #MAP_THRESHOLD} 时按 {@link #MAP_WINDOW} 大小的窗口做内存映射，
+ * 直接把映射区交给 {@link MessageDigest#update(ByteBuffer)}；更大的文件或映射失败时
+ * 改用定位读取到一个可复用的直接缓冲区，避免同时持有过多映射。
+ */
+public final class FileHashing {
+
+    static final long MAP_WINDOW = 64L << 20;
+
+    static final long MAP_THRESHOLD = 8L << 30;
+
+    static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(READ_BUFFER_SIZE));
+
+    private FileHashing() {
+    }
+
+    public static byte[] hash(Path file, String algorithm) throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return hash(channel, algorithm);
+        }
+    }
+
+    public static String hashHex(Path file, String algorithm) throws IOException, NoSuchAlgorithmException {
+        return HexCodec.encodeToString(hash(file, algorithm));
+    }
+
+    /**
+     * 计算通道从 0 到当前大小的全部内容的摘要，不改变通道的 position。
+     */
+    public static byte[] hash(FileChannel channel, String algorithm) throws IOException, NoSuchAlgorithmException {
+        try (DigestPool.Lease lease = DigestPool.borrow(algorithm)) {
+            MessageDigest digest = lease.digest();
+            update(digest, channel, 0, channel.size());
+            return digest.digest();
+        }
+    }
+
+    /**
+     * 把通道中 [position, position + length) 的内容送入 digest。
+     */
+    public static void update(MessageDigest digest, FileChannel channel, long position, long length) throws IOException {
+        update(digest, channel, position, length, MAP_WINDOW, MAP_THRESHOLD);
+    }
+
+    static void update(MessageDigest digest, FileChannel channel, long position, long length,
+                       long window, long mapThreshold) throws IOException {
+        long end = position + length;
+        if (channel.size() <= mapThreshold) {
+            while (position < end) {
+                long size = Math.min(window, end - position);
+                MappedByteBuffer mapped;
+                try {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                } catch (IOException | UnsupportedOperationException e) {
+                    // 地址空间不足或通道不支持映射，剩余部分改为定位读取
+                    break;
+                }
+                digest.update(mapped);
+                position += size;
+            }
+        }
+        if (position < end) {
+            read(digest, channel, position, end);
+        }
+    }
+
+    private static void read(MessageDigest digest, FileChannel channel, long position, long end) throws IOException {
+        ByteBuffer buffer = READ_BUFFER.get();
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("文件在读取过程中被截断: " + position);
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.hash;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 查表实现的十六进制（小写）编码，可直接写入调用方提供的 char[]、byte[] 或 ByteBuffer，
+ * 避免逐字节创建字符串；解码不依赖输入数据做分支或查表，适合处理摘要等敏感数据。
+ */
+public final class HexCodec {
+
+    private static final byte[] DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 每个字节值对应的两个十六进制字符：HIGH[b] 为高位，LOW[b] 为低位。
+     */
+    private static final byte[] HIGH = new byte[256];
+
+    private static final byte[] LOW = new byte[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            HIGH[b] = DIGITS[b >>> 4];
+            LOW[b] = DIGITS[b & 0x0f];
+        }
+    }
+
+    private HexCodec() {
+    }
+
+    public static String encodeToString(byte[] bytes) {
+        byte[] out = new byte[bytes.length << 1];
+        encode(bytes, 0, bytes.length, out, 0);
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 将 src[srcOff, srcOff + len) 编码到 dst，从 dstOff 开始写入 2 * len 个字符。
+     *
+     * @return 写入的字符数
+     */
+    public static int encode(byte[] src, int srcOff, int len, char[] dst, int dstOff) {
+        checkBounds(src.length, srcOff, len, dst.length, dstOff);
+        for (int i = 0; i < len; i++) {
+            int b = src[srcOff + i] & 0xff;
+            dst[dstOff++] = (char) HIGH[b];
+            dst[dstOff++] = (char) LOW[b];
+        }
+        return len << 1;
+    }
+
+    /**
+     * 将 src[srcOff, srcOff + len) 以 ASCII 编码到 dst，从 dstOff 开始写入 2 * len 个字节。
+     *
+     * @return 写入的字节数
+     */
+    public static int encode(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        checkBounds(src.length, srcOff, len, dst.length, dstOff);
+        for (int i = 0; i < len; i++) {
+            int b = src[srcOff + i] & 0xff;
+            dst[dstOff++] = HIGH[b];
+            dst[dstOff++] = LOW[b];
+        }
+        return len << 1;
+    }
+
+    /**
+     * 将 src[srcOff, srcOff + len) 以 ASCII 写入 dst 的当前位置。
+     *
+     * @return 写入的字节数
+     * @throws BufferOverflowException 如果 dst 剩余空间不足
+     */
+    public static int encode(byte[] src, int srcOff, int len, ByteBuffer dst) {
+        if ((len << 1) > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            int written = encode(src, srcOff, len, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + written);
+            return written;
+        }
+        checkBounds(src.length, srcOff, len, dst.remaining(), 0);
+        for (int i = 0; i < len; i++) {
+            int b = src[srcOff + i] & 0xff;
+            dst.put(HIGH[b]).put(LOW[b]);
+        }
+        return len << 1;
+    }
+
+    /**
+     * 解码十六进制字符串（大小写均可），耗时只与长度有关。
+     *
+     * @throws IllegalArgumentException 如果长度为奇数或包含非十六进制字符
+     */
+    public static byte[] decode(CharSequence hex) {
+        if ((hex.length() & 1) != 0) {
+            throw new IllegalArgumentException("十六进制字符串长度必须为偶数: " + hex.length());
+        }
+        byte[] out = new byte[hex.length() >> 1];
+        decode(hex, out, 0);
+        return out;
+    }
+
+    /**
+     * 将 hex 解码到 dst，从 dstOff 开始写入 hex.length() / 2 个字节。
+     * 非法字符不会提前退出，而是在全部处理完后统一报错。
+     *
+     * @return 写入的字节数
+     */
+    public static int decode(CharSequence hex, byte[] dst, int dstOff) {
+        int length = hex.length();
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException("十六进制字符串长度必须为偶数: " + length);
+        }
+        int count = length >> 1;
+        if (dstOff < 0 || dstOff > dst.length - count) {
+            throw new IndexOutOfBoundsException("目标数组空间不足");
+        }
+        int invalid = 0;
+        for (int i = 0; i < count; i++) {
+            char hi = hex.charAt(i << 1);
+            char lo = hex.charAt((i << 1) + 1);
+            int high = nibble(hi);
+            int low = nibble(lo);
+            invalid |= (high | low | hi | lo) >> 8;
+            dst[dstOff + i] = (byte) ((high << 4) | (low & 0x0f));
+        }
+        if (invalid != 0) {
+            throw new IllegalArgumentException("包含非十六进制字符");
+        }
+        return count;
+    }
+
+    /**
+     * 无分支地把一个字符转换为 0..15，非法字符时返回值的第 8 位以上不为 0。
+     */
+    private static int nibble(char ch) {
+        int c = ch & 0xff;
+        int num = c ^ '0';
+        int numMask = (num - 10) >> 8;
+        int alpha = (c & ~0x20) - ('A' - 10);
+        int alphaMask = ((alpha - 10) ^ (alpha - 16)) >> 8;
+        int value = (numMask & num) | (alphaMask & alpha);
+        return (value & 0x0f) | (((numMask | alphaMask) + 1) << 8);
+    }
+
+    static void checkBounds(int srcLength, int srcOff, int len, int dstLength, int dstOff) {
+        if (srcOff < 0 || len < 0 || srcOff > srcLength - len) {
+            throw new IndexOutOfBoundsException("源数组越界: offset=" + srcOff + ", length=" + len);
+        }
+        if (dstOff < 0 || dstOff > dstLength - (len << 1)) {
+            throw new IndexOutOfBoundsException("目标空间不足: 需要 " + (len << 1));
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package org.example.hash;
 
 import org.bouncycastle.jcajce.provider.digest.Keccak;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.util.encoders.Hex;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.security.Security;
 
 import static org.example.hash.DigestAlgorithms.KECCAK_256;
 import static org.example.hash.SHACommonUtils.bytesToHex;
@@ -15,12 +13,22 @@ import static org.example.hash.SHACommonUtils.bytesToHex;
 public class Keccak256Hashing {
 
     public static String hashWithJavaMessageDigest(final String originalString) throws NoSuchAlgorithmException {
-        Security.addProvider(new BouncyCastleProvider());
-        final MessageDigest digest = MessageDigest.getInstance(KECCAK_256);
-        final byte[] encodedhash = digest.digest(originalString.getBytes(StandardCharsets.UTF_8));
+        final byte[] encodedhash = DigestPool.digest(KECCAK_256, originalString.getBytes(StandardCharsets.UTF_8));
         return bytesToHex(encodedhash);
     }
 
+    public static String hashWithJavaMessageDigest(final byte[] input, final int offset, final int length) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(KECCAK_256, input, offset, length));
+    }
+
+    public static String hashWithJavaMessageDigest(final ByteBuffer input) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(KECCAK_256, input));
+    }
+
+    public static String hashWithJavaMessageDigest(final ByteBuffer... inputs) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(KECCAK_256, inputs));
+    }
+
     public static String hashWithBouncyCastle(final String originalString) {
         Keccak.Digest256 digest256 = new Keccak.Digest256();
         byte[] hashbytes = digest256.digest(originalString.getBytes(StandardCharsets.UTF_8));
@@ -0,0 +1,86 @@
+package org.example.hash;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * {@link MerkleTreeHashing} 的计算结果：根摘要以及每个分块的叶子摘要。
+ * 保存叶子摘要后，文件局部修改时只需重新计算发生变化的分块。
+ */
+public final class MerkleTree {
+
+    private final String algorithm;
+
+    private final int chunkSize;
+
+    private final long size;
+
+    private final byte[][] leaves;
+
+    private final byte[] root;
+
+    MerkleTree(String algorithm, int chunkSize, long size, byte[][] leaves, byte[] root) {
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.size = size;
+        this.leaves = leaves;
+        this.root = root;
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int chunkCount() {
+        return leaves.length;
+    }
+
+    public byte[] root() {
+        return root.clone();
+    }
+
+    public String rootHex() {
+        return HexCodec.encodeToString(root);
+    }
+
+    public byte[] leaf(int chunk) {
+        return leaves[chunk].clone();
+    }
+
+    /**
+     * 返回与 other 相比叶子摘要不同的分块，多出或缺少的分块也算作不同。
+     *
+     * @throws IllegalArgumentException 如果两棵树的算法或分块大小不同
+     */
+    public BitSet changedChunks(MerkleTree other) {
+        checkCompatible(other.algorithm, other.chunkSize);
+        BitSet changed = new BitSet();
+        int common = Math.min(leaves.length, other.leaves.length);
+        for (int chunk = 0; chunk < common; chunk++) {
+            if (!Arrays.equals(leaves[chunk], other.leaves[chunk])) {
+                changed.set(chunk);
+            }
+        }
+        changed.set(common, Math.max(leaves.length, other.leaves.length));
+        return changed;
+    }
+
+    void checkCompatible(String algorithm, int chunkSize) {
+        if (!this.algorithm.equals(algorithm) || this.chunkSize != chunkSize) {
+            throw new IllegalArgumentException("Merkle 树参数不一致: " + this.algorithm + "/" + this.chunkSize
+                    + " 与 " + algorithm + "/" + chunkSize);
+        }
+    }
+
+    byte[][] leaves() {
+        return leaves;
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.hash;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 大文件的树形摘要：把文件切成固定大小的分块，在 ForkJoinPool 上并行计算每块的叶子摘要，
+ * 再两两合并得到根摘要，从而突破单个摘要流只能使用一个核心的限制。
+ *
+ * 叶子为 H(0x00 || 分块)，内部节点为 H(0x01 || 左 || 右)（与 RFC 6962 相同的前缀，防止
+ * 叶子与内部节点混淆），奇数个节点时最后一个直接提升到上一层。空文件视为一个空分块。
+ * 算法通常取 {@link DigestAlgorithms#SHA_256} 或 {@link DigestAlgorithms#SHA3_256}。
+ */
+public final class MerkleTreeHashing {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    private static final byte LEAF_PREFIX = 0x00;
+
+    private static final byte NODE_PREFIX = 0x01;
+
+    private MerkleTreeHashing() {
+    }
+
+    public static MerkleTree hash(Path file, String algorithm) throws IOException, NoSuchAlgorithmException {
+        return hash(file, algorithm, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public static MerkleTree hash(Path file, String algorithm, int chunkSize, ForkJoinPool pool)
+            throws IOException, NoSuchAlgorithmException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("分块大小必须为正数: " + chunkSize);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            BitSet all = new BitSet();
+            all.set(0, chunkCount(size, chunkSize));
+            return build(channel, algorithm, chunkSize, size, null, all, pool);
+        }
+    }
+
+    /**
+     * 基于上一次的结果重新计算摘要，只读取 changedChunks 中的分块。文件长度变化时，
+     * 原来的最后一个分块及之后新增的分块会自动重新计算。
+     *
+     * @param changedChunks 调用方已知被修改过的分块（例如由写入偏移除以分块大小得到）
+     */
+    public static MerkleTree rehash(Path file, MerkleTree previous, BitSet changedChunks, ForkJoinPool pool)
+            throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = chunkCount(size, previous.chunkSize());
+            BitSet dirty = (BitSet) changedChunks.clone();
+            if (size != previous.size()) {
+                dirty.set(Math.max(0, Math.min(count, previous.chunkCount()) - 1), count);
+            }
+            dirty.clear(count, Math.max(count, dirty.length()));
+            return build(channel, previous.algorithm(), previous.chunkSize(), size, previous.leaves(), dirty, pool);
+        }
+    }
+
+    /**
+     * 只重新计算 [offset, offset + length) 覆盖到的分块。
+     */
+    public static MerkleTree rehash(Path file, MerkleTree previous, long offset, long length)
+            throws IOException, NoSuchAlgorithmException {
+        BitSet changed = new BitSet();
+        if (length > 0) {
+            int first = (int) (offset / previous.chunkSize());
+            int last = (int) ((offset + length - 1) / previous.chunkSize());
+            changed.set(first, last + 1);
+        }
+        return rehash(file, previous, changed, ForkJoinPool.commonPool());
+    }
+
+    static int chunkCount(long size, int chunkSize) {
+        long count = Math.max(1, (size + chunkSize - 1) / chunkSize);
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("分块数量过多，请增大分块大小: " + count);
+        }
+        return (int) count;
+    }
+
+    private static MerkleTree build(FileChannel channel, String algorithm, int chunkSize, long size,
+                                    byte[][] previousLeaves, BitSet dirty, ForkJoinPool pool)
+            throws IOException, NoSuchAlgorithmException {
+        // 提前校验算法，避免在工作线程中才失败
+        DigestPool.threadLocal(algorithm);
+        int count = chunkCount(size, chunkSize);
+        byte[][] leaves = new byte[count][];
+        if (previousLeaves != null) {
+            System.arraycopy(previousLeaves, 0, leaves, 0, Math.min(count, previousLeaves.length));
+        }
+        try {
+            pool.invoke(new LeafTask(channel, algorithm, chunkSize, size, leaves, dirty, 0, count));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new MerkleTree(algorithm, chunkSize, size, leaves, root(DigestPool.threadLocal(algorithm), leaves));
+    }
+
+    private static byte[] root(MessageDigest digest, byte[][] leaves) {
+        byte[][] level = leaves;
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                int left = i << 1;
+                if (left + 1 == level.length) {
+                    parent[i] = level[left];
+                } else {
+                    digest.update(NODE_PREFIX);
+                    digest.update(level[left]);
+                    digest.update(level[left + 1]);
+                    parent[i] = digest.digest();
+                }
+            }
+            level = parent;
+        }
+        return level[0];
+    }
+
+    /**
+     * 递归二分分块区间，区间只剩一个分块时计算叶子摘要。
+     */
+    @SuppressWarnings("serial")
+    private static final class LeafTask extends RecursiveAction {
+
+        private final FileChannel channel;
+        private final String algorithm;
+        private final int chunkSize;
+        private final long size;
+        private final byte[][] leaves;
+        private final BitSet dirty;
+        private final int from;
+        private final int to;
+
+        LeafTask(FileChannel channel, String algorithm, int chunkSize, long size,
+                 byte[][] leaves, BitSet dirty, int from, int to) {
+            this.channel = channel;
+            this.algorithm = algorithm;
+            this.chunkSize = chunkSize;
+            this.size = size;
+            this.leaves = leaves;
+            this.dirty = dirty;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int next = dirty.nextSetBit(from);
+            if (next < 0 || next >= to) {
+                return;
+            }
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LeafTask(channel, algorithm, chunkSize, size, leaves, dirty, from, mid),
+                        new LeafTask(channel, algorithm, chunkSize, size, leaves, dirty, mid, to));
+                return;
+            }
+            long position = (long) from * chunkSize;
+            try {
+                MessageDigest digest = DigestPool.threadLocal(algorithm);
+                digest.update(LEAF_PREFIX);
+                FileHashing.update(digest, channel, position, Math.min(chunkSize, size - position));
+                leaves[from] = digest.digest();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("缺少算法: " + algorithm, e);
+            }
+        }
+    }
+}
@@ -4,8 +4,8 @@ import com.google.common.hash.Hashing;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.bouncycastle.util.encoders.Hex;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 import static org.example.hash.DigestAlgorithms.SHA_256;
@@ -14,11 +14,22 @@ import static org.example.hash.SHACommonUtils.bytesToHex;
 public class SHA256Hashing {
 
     public static String HashWithJavaMessageDigest(final String originalString) throws NoSuchAlgorithmException {
-        final MessageDigest digest = MessageDigest.getInstance(SHA_256);
-        final byte[] encodedhash = digest.digest(originalString.getBytes(StandardCharsets.UTF_8));
+        final byte[] encodedhash = DigestPool.digest(SHA_256, originalString.getBytes(StandardCharsets.UTF_8));
         return bytesToHex(encodedhash);
     }
 
+    public static String HashWithJavaMessageDigest(final byte[] input, final int offset, final int length) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(SHA_256, input, offset, length));
+    }
+
+    public static String HashWithJavaMessageDigest(final ByteBuffer input) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(SHA_256, input));
+    }
+
+    public static String HashWithJavaMessageDigest(final ByteBuffer... inputs) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(SHA_256, inputs));
+    }
+
     public static String hashWithGuava(final String originalString) {
         final String sha256hex = Hashing.sha256().hashString(originalString, StandardCharsets.UTF_8).toString();
         return sha256hex;
@@ -30,8 +41,7 @@ public class SHA256Hashing {
     }
 
     public static String HashWithBouncyCastle(final String originalString) throws NoSuchAlgorithmException {
-        final MessageDigest digest = MessageDigest.getInstance(SHA_256);
-        final byte[] hash = digest.digest(originalString.getBytes(StandardCharsets.UTF_8));
+        final byte[] hash = DigestPool.digest(SHA_256, originalString.getBytes(StandardCharsets.UTF_8));
         final String sha256hex = new String(Hex.encode(hash));
         return sha256hex;
     }
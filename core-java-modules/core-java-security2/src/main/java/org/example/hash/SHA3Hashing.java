@@ -3,13 +3,11 @@ package org.example.hash;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.bouncycastle.jcajce.provider.asymmetric.rsa.DigestSignatureSpi;
 import org.bouncycastle.jcajce.provider.digest.SHA3;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.util.encoders.Hex;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.security.Security;
 
 import static org.apache.commons.codec.digest.MessageDigestAlgorithms.SHA3_256;
 import static org.example.hash.SHACommonUtils.bytesToHex;
@@ -18,18 +16,27 @@ public class SHA3Hashing {
 
     /* works with JDK9+ only */
     public static String hashWithJavaMessageDigestJDK9(final String originalString) throws NoSuchAlgorithmException {
-        final MessageDigest digest = MessageDigest.getInstance(SHA3_256);
-        final byte[] hashbytes = digest.digest(originalString.getBytes(StandardCharsets.UTF_8));
+        final byte[] hashbytes = DigestPool.digest(SHA3_256, originalString.getBytes(StandardCharsets.UTF_8));
         return bytesToHex(hashbytes);
     }
 
     public static String hashWithJavaMessageDigest(final String originalString) throws NoSuchAlgorithmException {
-        Security.addProvider(new BouncyCastleProvider());
-        final MessageDigest digest = MessageDigest.getInstance(SHA3_256);
-        final byte[] hashbytes = digest.digest(originalString.getBytes(StandardCharsets.UTF_8));
+        final byte[] hashbytes = DigestPool.digest(SHA3_256, originalString.getBytes(StandardCharsets.UTF_8));
         return bytesToHex(hashbytes);
     }
 
+    public static String hashWithJavaMessageDigest(final byte[] input, final int offset, final int length) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(SHA3_256, input, offset, length));
+    }
+
+    public static String hashWithJavaMessageDigest(final ByteBuffer input) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(SHA3_256, input));
+    }
+
+    public static String hashWithJavaMessageDigest(final ByteBuffer... inputs) throws NoSuchAlgorithmException {
+        return bytesToHex(DigestPool.digest(SHA3_256, inputs));
+    }
+
     /* works with JDK9+ only */
     public static String hashWithApacheCommonsJDK9(final String originalString) {
         return new DigestUtils(SHA3_256).digestAsHex(originalString);
@@ -3,14 +3,7 @@ package org.example.hash;
 class SHACommonUtils {
 
     public static String bytesToHex(byte[] hash) {
-        StringBuilder hexString = new StringBuilder(2 * hash.length);
-        for (byte h : hash) {
-            String hex = Integer.toHexString(0xff & h);
-            if (hex.length() == 1)
-                hexString.append('0');
-            hexString.append(hex);
-        }
-        return hexString.toString();
+        return HexCodec.encodeToString(hash);
     }
 
-}
\ No newline at end of file
+}
@@ -7,10 +7,16 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
 
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.codec.digest.DigestUtils;
+import org.example.check.ChecksumAlgorithm;
+import org.example.check.MultiDigest;
+import org.example.hash.DigestAlgorithms;
+import org.example.hash.FileHashing;
 import org.junit.Test;
 
 public class JavaMD5Test {
@@ -47,6 +53,28 @@ public class JavaMD5Test {
         assertThat(myChecksum.equals(checksum)).isTrue();
     }
 
+    @Test
+    public void givenFile_whenStreamHashing_thenVerifying() throws NoSuchAlgorithmException, IOException {
+        String filename = "src/test/resources/test_md5.txt";
+        String checksum = "5EB63BBBE01EEED093CB22BB8F5ACDC3";
+
+        String myChecksum = FileHashing.hashHex(Paths.get(filename), DigestAlgorithms.MD5).toUpperCase();
+
+        assertThat(myChecksum.equals(checksum)).isTrue();
+    }
+
+    @Test
+    public void givenFile_whenMultiDigesting_thenMd5Verifying() throws NoSuchAlgorithmException, IOException {
+        String filename = "src/test/resources/test_md5.txt";
+        String checksum = "5EB63BBBE01EEED093CB22BB8F5ACDC3";
+
+        MultiDigest multiDigest = new MultiDigest(Arrays.asList(DigestAlgorithms.MD5, DigestAlgorithms.SHA_256),
+                Collections.singletonList(ChecksumAlgorithm.CRC32));
+        MultiDigest.Result result = multiDigest.digest(Paths.get(filename));
+
+        assertThat(result.hex(DigestAlgorithms.MD5).toUpperCase().equals(checksum)).isTrue();
+    }
+
     @Test
     public void givenPassword_whenHashingUsingCommons_thenVerifying() {
         String hash = "35454B055CC325EA1AF2126E27707052";
@@ -0,0 +1,206 @@
+package org.example.password;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * 异步的 PBKDF2 密码校验：哈希计算在一个与 CPU 核数相同大小的专用线程池中执行，不占用调用方（例如 Web 请求）线程。
+ *
+ * 等待队列有上限，队列已满时立即以 {@link RejectedExecutionException} 结束返回的 future，
+ * 而不是让请求无限排队，登录高峰时其余接口的延迟不受影响，调用方可以据此返回 429/503。
+ *
+ * {@link #metrics()} 分别统计排队等待时间和实际计算时间，便于区分是容量不足还是单次成本过高。
+ */
+public final class AsyncPasswordVerifier implements AutoCloseable {
+
+  private final BiPredicate<char[], String> check;
+
+  private final ThreadPoolExecutor executor;
+
+  private final LongAdder submitted = new LongAdder();
+
+  private final LongAdder rejected = new LongAdder();
+
+  private final LongAdder completed = new LongAdder();
+
+  private final LongAdder queueWaitNanos = new LongAdder();
+
+  private final LongAdder computeNanos = new LongAdder();
+
+  /**
+   * 线程数为 CPU 核数，队列长度为线程数的 4 倍。
+   */
+  public AsyncPasswordVerifier(PBKDF2Hasher hasher) {
+    this(hasher, Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param threads 计算线程数
+   * @param queueCapacity 等待队列长度，超过后的请求被立即拒绝
+   */
+  public AsyncPasswordVerifier(PBKDF2Hasher hasher, int threads, int queueCapacity) {
+    this(hasher::checkPassword, threads, queueCapacity);
+  }
+
+  AsyncPasswordVerifier(BiPredicate<char[], String> check, int threads, int queueCapacity) {
+    if (threads <= 0 || queueCapacity <= 0) {
+      throw new IllegalArgumentException("线程数和队列长度必须为正数: " + threads + ", " + queueCapacity);
+    }
+    this.check = check;
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new VerifierThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * 异步校验密码。方法内会复制 password，调用方可以在返回后立即清零自己的数组。
+   *
+   * @return 校验结果；队列已满时以 {@link RejectedExecutionException} 异常结束，
+   *         令牌格式错误时以 {@link IllegalArgumentException} 异常结束
+   */
+  public CompletableFuture<Boolean> checkPassword(char[] password, String token) {
+    char[] copy = password.clone();
+    long enqueued = System.nanoTime();
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    submitted.increment();
+    try {
+      executor.execute(() -> {
+        long started = System.nanoTime();
+        queueWaitNanos.add(started - enqueued);
+        boolean matches;
+        try {
+          matches = check.test(copy, token);
+        } catch (Throwable e) {
+          // Error（例如畸形令牌导致的 StackOverflowError）也要结束 future，否则调用方会一直等待
+          record(started);
+          result.completeExceptionally(e);
+          if (e instanceof Error) {
+            throw (Error) e;
+          }
+          return;
+        } finally {
+          Arrays.fill(copy, '\0');
+        }
+        // 先记录统计再完成 future，调用方拿到结果时统计已经包含本次计算
+        record(started);
+        result.complete(matches);
+      });
+    } catch (RejectedExecutionException e) {
+      Arrays.fill(copy, '\0');
+      submitted.decrement();
+      rejected.increment();
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  private void record(long started) {
+    computeNanos.add(System.nanoTime() - started);
+    completed.increment();
+  }
+
+  public Metrics metrics() {
+    return new Metrics(submitted.sum(), rejected.sum(), completed.sum(), executor.getQueue().size(),
+        executor.getActiveCount(), queueWaitNanos.sum(), computeNanos.sum());
+  }
+
+  /**
+   * 不再接受新请求，已排队的请求仍会完成。
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private static final class VerifierThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "password-verifier-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  /**
+   * 校验器的运行统计快照。
+   */
+  public static final class Metrics {
+
+    private final long submitted;
+
+    private final long rejected;
+
+    private final long completed;
+
+    private final int queueDepth;
+
+    private final int active;
+
+    private final long queueWaitNanos;
+
+    private final long computeNanos;
+
+    Metrics(long submitted, long rejected, long completed, int queueDepth, int active,
+            long queueWaitNanos, long computeNanos) {
+      this.submitted = submitted;
+      this.rejected = rejected;
+      this.completed = completed;
+      this.queueDepth = queueDepth;
+      this.active = active;
+      this.queueWaitNanos = queueWaitNanos;
+      this.computeNanos = computeNanos;
+    }
+
+    public long getSubmitted() {
+      return submitted;
+    }
+
+    public long getRejected() {
+      return rejected;
+    }
+
+    public long getCompleted() {
+      return completed;
+    }
+
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    public int getActive() {
+      return active;
+    }
+
+    public long getQueueWaitNanos() {
+      return queueWaitNanos;
+    }
+
+    public long getComputeNanos() {
+      return computeNanos;
+    }
+
+    public double getAverageQueueWaitMillis() {
+      return completed == 0 ? 0 : queueWaitNanos / 1e6 / completed;
+    }
+
+    public double getAverageComputeMillis() {
+      return completed == 0 ? 0 : computeNanos / 1e6 / completed;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("submitted=%d rejected=%d completed=%d queue=%d active=%d wait=%.2f ms compute=%.2f ms",
+          submitted, rejected, completed, queueDepth, active, getAverageQueueWaitMillis(), getAverageComputeMillis());
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package org.example.password;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 合并并发的相同密码校验（single-flight）：撞库或客户端重试时，同一个（令牌, 密码）组合会同时到达很多次，
+ * 只有第一个请求真正计算，其余请求等待并共享它的结果，不再各自执行一次完整的 PBKDF2。
+ *
+ * 合并只发生在计算进行期间，结果不会被缓存，计算结束后的相同请求会重新计算。
+ * 进行中的请求以 HMAC-SHA256(随机密钥, 令牌 || 密码) 作为键，密钥在构造时随机生成且不离开本对象，
+ * 所以映射表中既没有明文密码，也无法离线用字典反推。
+ *
+ * {@link #metrics()} 中的 coalesced 为被合并的请求数，按计算请求的平均耗时估算节省的 CPU 时间。
+ */
+public final class CoalescingPasswordVerifier {
+
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+
+  private final BiFunction<char[], String, CompletableFuture<Boolean>> check;
+
+  private final ThreadLocal<Mac> macs;
+
+  private final ConcurrentMap<Fingerprint, InFlight> inFlight = new ConcurrentHashMap<>();
+
+  private final LongAdder requests = new LongAdder();
+
+  private final LongAdder computed = new LongAdder();
+
+  private final LongAdder coalesced = new LongAdder();
+
+  private final LongAdder computeNanos = new LongAdder();
+
+  /**
+   * 在调用线程中同步计算，返回的 future 已经完成。
+   */
+  public CoalescingPasswordVerifier(PBKDF2Hasher hasher) {
+    this((password, token) -> {
+      try {
+        return CompletableFuture.completedFuture(hasher.checkPassword(password, token));
+      } catch (RuntimeException e) {
+        CompletableFuture<Boolean> failed = new CompletableFuture<>();
+        failed.completeExceptionally(e);
+        return failed;
+      }
+    });
+  }
+
+  /**
+   * 放在 {@link AsyncPasswordVerifier} 之前，被合并的请求不占用它的线程和队列。
+   * 此时统计的计算耗时包括在 delegate 中的排队时间。
+   */
+  public CoalescingPasswordVerifier(AsyncPasswordVerifier delegate) {
+    this(delegate::checkPassword);
+  }
+
+  CoalescingPasswordVerifier(BiFunction<char[], String, CompletableFuture<Boolean>> check) {
+    this.check = check;
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    SecretKeySpec keySpec = new SecretKeySpec(key, MAC_ALGORITHM);
+    Arrays.fill(key, (byte) 0);
+    this.macs = ThreadLocal.withInitial(() -> {
+      try {
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(keySpec);
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("缺少算法: " + MAC_ALGORITHM, e);
+      }
+    });
+  }
+
+  /**
+   * 校验密码。已有相同的校验正在进行时不再计算，直接返回与之相同的结果。
+   *
+   * @return 校验结果；令牌格式错误或 delegate 拒绝时以相应异常结束，同一批合并的请求得到同一个异常
+   */
+  public CompletableFuture<Boolean> checkPassword(char[] password, String token) {
+    requests.increment();
+    Fingerprint key = fingerprint(password, token);
+    InFlight mine = new InFlight();
+    InFlight existing = inFlight.putIfAbsent(key, mine);
+    if (existing != null) {
+      coalesced.increment();
+      // 每个调用方拿到独立的副本，取消自己的 future 不影响其他请求
+      return existing.result.copy();
+    }
+
+    long started = System.nanoTime();
+    CompletableFuture<Boolean> computation;
+    try {
+      computation = check.apply(password, token);
+    } catch (RuntimeException e) {
+      computation = new CompletableFuture<>();
+      computation.completeExceptionally(e);
+    }
+    computation.whenComplete((matches, error) -> {
+      // 先移出映射表再完成，之后到达的请求会重新计算而不是拿到已结束的结果
+      inFlight.remove(key, mine);
+      computeNanos.add(System.nanoTime() - started);
+      computed.increment();
+      if (error != null) {
+        mine.result.completeExceptionally(error);
+      } else {
+        mine.result.complete(matches);
+      }
+    });
+    return mine.result.copy();
+  }
+
+  private Fingerprint fingerprint(char[] password, String token) {
+    Mac mac = macs.get();
+    byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+    // 令牌长度前缀避免（令牌, 密码）的不同切分得到相同的输入
+    mac.update(ByteBuffer.allocate(4).putInt(tokenBytes.length).array());
+    mac.update(tokenBytes);
+    ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+    try {
+      mac.update(encoded);
+    } finally {
+      if (encoded.hasArray()) {
+        Arrays.fill(encoded.array(), (byte) 0);
+      }
+    }
+    return new Fingerprint(mac.doFinal());
+  }
+
+  public Metrics metrics() {
+    return new Metrics(requests.sum(), computed.sum(), coalesced.sum(), inFlight.size(), computeNanos.sum());
+  }
+
+  private static final class InFlight {
+
+    private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+  }
+
+  private static final class Fingerprint {
+
+    private final byte[] value;
+
+    private final int hash;
+
+    Fingerprint(byte[] value) {
+      this.value = value;
+      this.hash = Arrays.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Fingerprint && Arrays.equals(value, ((Fingerprint) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * 合并统计快照。
+   */
+  public static final class Metrics {
+
+    private final long requests;
+
+    private final long computed;
+
+    private final long coalesced;
+
+    private final int inFlight;
+
+    private final long computeNanos;
+
+    Metrics(long requests, long computed, long coalesced, int inFlight, long computeNanos) {
+      this.requests = requests;
+      this.computed = computed;
+      this.coalesced = coalesced;
+      this.inFlight = inFlight;
+      this.computeNanos = computeNanos;
+    }
+
+    public long getRequests() {
+      return requests;
+    }
+
+    /**
+     * @return 实际执行（已完成）的计算次数
+     */
+    public long getComputed() {
+      return computed;
+    }
+
+    /**
+     * @return 共享了其他请求结果、没有自行计算的请求数
+     */
+    public long getCoalesced() {
+      return coalesced;
+    }
+
+    /**
+     * @return 快照时正在计算的不同校验数
+     */
+    public int getInFlight() {
+      return inFlight;
+    }
+
+    public long getComputeNanos() {
+      return computeNanos;
+    }
+
+    public double getAverageComputeMillis() {
+      return computed == 0 ? 0 : computeNanos / 1e6 / computed;
+    }
+
+    /**
+     * @return 按平均计算耗时估算的、被合并请求省下的 CPU 时间
+     */
+    public double getEstimatedCpuSavedMillis() {
+      return coalesced * getAverageComputeMillis();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("requests=%d computed=%d coalesced=%d inFlight=%d compute=%.2f ms saved≈%.1f ms",
+          requests, computed, coalesced, inFlight, getAverageComputeMillis(), getEstimatedCpuSavedMillis());
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.example.password;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 按内存而不是线程数限制并发的内存密集型哈希：每次计算先取得与其内存用量相同的 KiB 许可，结束后归还。
+ * 许可总数即内存预算，所以登录高峰时同时进行的 Argon2/scrypt 计算占用的内存不会超过预算，
+ * 不会把 JVM 堆耗尽或让 GC 频繁回收大数组。
+ *
+ * 许可按先来先服务分配（公平信号量），大内存的计算不会被小计算一直插队。等待超过 maxWait 的请求以
+ * {@link RejectedExecutionException} 失败，调用方可以据此返回 429/503；单次需求超过整个预算的请求立即失败。
+ *
+ * 同一个 JVM 中的多个 {@link MemoryHardHasher} 应共享同一个预算。
+ */
+public final class MemoryBudget {
+
+  private final int totalKiB;
+
+  private final Duration maxWait;
+
+  private final Semaphore permits;
+
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * @param totalKiB 预算总量（KiB）
+   * @param maxWait 取得许可的最长等待时间
+   */
+  public MemoryBudget(int totalKiB, Duration maxWait) {
+    if (totalKiB <= 0) {
+      throw new IllegalArgumentException("内存预算必须为正数: " + totalKiB);
+    }
+    this.totalKiB = totalKiB;
+    this.maxWait = maxWait;
+    this.permits = new Semaphore(totalKiB, true);
+  }
+
+  /**
+   * 以最大堆内存的 fraction 作为预算。
+   */
+  public static MemoryBudget ofHeapFraction(double fraction, Duration maxWait) {
+    if (fraction <= 0 || fraction > 1) {
+      throw new IllegalArgumentException("比例必须在 (0, 1] 之间: " + fraction);
+    }
+    long kib = (long) (Runtime.getRuntime().maxMemory() * fraction / 1024);
+    return new MemoryBudget((int) Math.min(Integer.MAX_VALUE, kib), maxWait);
+  }
+
+  /**
+   * 取得 kib 个许可后执行 task，结束后归还许可。
+   *
+   * @throws IllegalArgumentException kib 超过整个预算
+   * @throws RejectedExecutionException 等待超过 maxWait 或等待时被中断
+   */
+  public <T> T run(int kib, Supplier<T> task) {
+    if (kib > totalKiB) {
+      throw new IllegalArgumentException("单次计算所需内存超出预算: " + kib + " KiB > " + totalKiB + " KiB");
+    }
+    try {
+      if (!permits.tryAcquire(kib, maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+        rejected.increment();
+        throw new RejectedExecutionException("等待内存预算超时: " + kib + " KiB");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      rejected.increment();
+      throw new RejectedExecutionException("等待内存预算时被中断", e);
+    }
+    try {
+      return task.get();
+    } finally {
+      permits.release(kib);
+    }
+  }
+
+  public int getTotalKiB() {
+    return totalKiB;
+  }
+
+  public int getAvailableKiB() {
+    return permits.availablePermits();
+  }
+
+  /**
+   * @return 正在等待许可的线程数（估计值）
+   */
+  public int getWaiting() {
+    return permits.getQueueLength();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("available=%d/%d KiB waiting=%d rejected=%d", getAvailableKiB(), totalKiB, getWaiting(),
+        getRejected());
+  }
+}
@@ -0,0 +1,229 @@
+package org.example.password;
+
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.generators.SCrypt;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 内存密集型的密码存储哈希（Argon2id 或 scrypt，由 BouncyCastle 计算），用法与 {@link PBKDF2Hasher} 相同。
+ *
+ * 令牌与 PBKDF2Hasher 的 "$31$" 一样以算法标识开头，并带有全部参数，采用 PHC 字符串格式：
+ * <pre>
+ * $argon2id$v=19$m=65536,t=3,p=1$&lt;salt&gt;$&lt;hash&gt;
+ * $scrypt$ln=15,r=8,p=1$&lt;salt&gt;$&lt;hash&gt;
+ * </pre>
+ * salt 与 hash 为不带填充的标准 Base64。校验时按令牌中的参数计算，所以调整参数后旧令牌仍然可以校验。
+ *
+ * 每次计算都要分配数十 MB 内存，hash 与 checkPassword 都会先从 {@link MemoryBudget} 取得相应的许可。
+ * 该类的实例可以在多线程环境下安全地并发使用。
+ */
+public final class MemoryHardHasher {
+
+  public enum Algorithm {
+    ARGON2ID,
+    SCRYPT
+  }
+
+  /**
+   * RFC 9106 推荐的第二组参数（64 MiB，3 轮），并行度取 1，BouncyCastle 按顺序计算各个 lane。
+   */
+  public static final int DEFAULT_MEMORY_KIB = 64 * 1024;
+
+  public static final int DEFAULT_ITERATIONS = 3;
+
+  private static final int SALT_LENGTH = 16;
+
+  private static final int HASH_LENGTH = 32;
+
+  private static final Pattern ARGON2ID_PATTERN =
+      Pattern.compile("\\$argon2id\\$v=19\\$m=(\\d{1,10}),t=(\\d{1,10}),p=(\\d{1,3})\\$([A-Za-z0-9+/]+)\\$([A-Za-z0-9+/]+)");
+
+  private static final Pattern SCRYPT_PATTERN =
+      Pattern.compile("\\$scrypt\\$ln=(\\d{1,2}),r=(\\d{1,10}),p=(\\d{1,10})\\$([A-Za-z0-9+/]+)\\$([A-Za-z0-9+/]+)");
+
+  private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+
+  private final Algorithm algorithm;
+
+  /**
+   * Argon2 为内存（KiB），scrypt 为 log2(N)。
+   */
+  private final int cost;
+
+  /**
+   * Argon2 为迭代轮数，scrypt 为块大小 r。
+   */
+  private final int rounds;
+
+  private final int parallelism;
+
+  private final MemoryBudget budget;
+
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * 使用默认的 Argon2id 参数，预算为最大堆内存的一半，最多等待 5 秒。
+   */
+  public MemoryHardHasher() {
+    this(Algorithm.ARGON2ID, DEFAULT_MEMORY_KIB, DEFAULT_ITERATIONS, 1,
+        MemoryBudget.ofHeapFraction(0.5, Duration.ofSeconds(5)));
+  }
+
+  private MemoryHardHasher(Algorithm algorithm, int cost, int rounds, int parallelism, MemoryBudget budget) {
+    validate(algorithm, cost, rounds, parallelism);
+    this.algorithm = algorithm;
+    this.cost = cost;
+    this.rounds = rounds;
+    this.parallelism = parallelism;
+    this.budget = budget;
+    int kib = memoryKiB(algorithm, cost, rounds, parallelism);
+    if (kib > budget.getTotalKiB()) {
+      throw new IllegalArgumentException("单次计算所需内存超出预算: " + kib + " KiB > " + budget.getTotalKiB() + " KiB");
+    }
+  }
+
+  /**
+   * @param memoryKiB 内存用量（KiB），至少为 8 * parallelism
+   * @param iterations 迭代轮数
+   * @param parallelism lane 数
+   */
+  public static MemoryHardHasher argon2id(int memoryKiB, int iterations, int parallelism, MemoryBudget budget) {
+    return new MemoryHardHasher(Algorithm.ARGON2ID, memoryKiB, iterations, parallelism, budget);
+  }
+
+  /**
+   * @param log2N CPU/内存成本 N 的以 2 为底的对数
+   * @param blockSize 块大小 r
+   * @param parallelism 并行度 p
+   */
+  public static MemoryHardHasher scrypt(int log2N, int blockSize, int parallelism, MemoryBudget budget) {
+    return new MemoryHardHasher(Algorithm.SCRYPT, log2N, blockSize, parallelism, budget);
+  }
+
+  private static void validate(Algorithm algorithm, int cost, int rounds, int parallelism) {
+    if (algorithm == Algorithm.ARGON2ID) {
+      if (parallelism < 1 || parallelism > 255 || rounds < 1 || cost < 8 * parallelism) {
+        throw new IllegalArgumentException("Argon2 参数非法: m=" + cost + ", t=" + rounds + ", p=" + parallelism);
+      }
+    } else if (cost < 1 || cost > 30 || rounds < 1 || parallelism < 1
+        || 128L * rounds * (1L << cost) > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("scrypt 参数非法: ln=" + cost + ", r=" + rounds + ", p=" + parallelism);
+    }
+  }
+
+  /**
+   * 单次计算的内存用量估计（KiB）：Argon2 为 m 加上 BouncyCastle 每个 1 KiB 块的对象开销，
+   * scrypt 为 128 * r * (N + p) 字节。
+   */
+  static int memoryKiB(Algorithm algorithm, int cost, int rounds, int parallelism) {
+    long kib = algorithm == Algorithm.ARGON2ID
+        ? cost + cost / 16L
+        : (128L * rounds * ((1L << cost) + parallelism) + 1023) / 1024;
+    return (int) Math.min(Integer.MAX_VALUE, kib);
+  }
+
+  /**
+   * 对密码进行哈希处理以便存储。
+   *
+   * @return 一个安全的身份验证令牌，用于后续认证
+   * @throws java.util.concurrent.RejectedExecutionException 等待内存预算超时
+   */
+  public String hash(char[] password) {
+    byte[] salt = new byte[SALT_LENGTH];
+    random.nextBytes(salt);
+    byte[] hash = derive(algorithm, cost, rounds, parallelism, password, salt, HASH_LENGTH);
+    String params = algorithm == Algorithm.ARGON2ID
+        ? "$argon2id$v=19$m=" + cost + ",t=" + rounds + ",p=" + parallelism
+        : "$scrypt$ln=" + cost + ",r=" + rounds + ",p=" + parallelism;
+    return params + '$' + ENCODER.encodeToString(salt) + '$' + ENCODER.encodeToString(hash);
+  }
+
+  /**
+   * 使用密码和存储的令牌进行身份验证，按令牌中的算法和参数计算。
+   *
+   * @return 如果密码和令牌匹配则返回true，否则返回false
+   * @throws IllegalArgumentException 令牌格式错误，或令牌要求的内存超出预算
+   * @throws java.util.concurrent.RejectedExecutionException 等待内存预算超时
+   */
+  public boolean checkPassword(char[] password, String token) {
+    Algorithm tokenAlgorithm;
+    Matcher matcher = ARGON2ID_PATTERN.matcher(token);
+    if (matcher.matches()) {
+      tokenAlgorithm = Algorithm.ARGON2ID;
+    } else {
+      matcher = SCRYPT_PATTERN.matcher(token);
+      if (!matcher.matches()) {
+        throw new IllegalArgumentException("无效的令牌格式");
+      }
+      tokenAlgorithm = Algorithm.SCRYPT;
+    }
+    int tokenCost;
+    int tokenRounds;
+    int tokenParallelism;
+    try {
+      tokenCost = Integer.parseInt(matcher.group(1));
+      tokenRounds = Integer.parseInt(matcher.group(2));
+      tokenParallelism = Integer.parseInt(matcher.group(3));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("无效的令牌格式", e);
+    }
+    validate(tokenAlgorithm, tokenCost, tokenRounds, tokenParallelism);
+    byte[] salt = Base64.getDecoder().decode(matcher.group(4));
+    byte[] expected = Base64.getDecoder().decode(matcher.group(5));
+    byte[] check = derive(tokenAlgorithm, tokenCost, tokenRounds, tokenParallelism, password, salt, expected.length);
+    return MessageDigest.isEqual(expected, check);
+  }
+
+  private byte[] derive(Algorithm algorithm, int cost, int rounds, int parallelism, char[] password, byte[] salt,
+                        int length) {
+    return budget.run(memoryKiB(algorithm, cost, rounds, parallelism), () -> {
+      byte[] out = new byte[length];
+      if (algorithm == Algorithm.ARGON2ID) {
+        Argon2Parameters params = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+            .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+            .withMemoryAsKB(cost)
+            .withIterations(rounds)
+            .withParallelism(parallelism)
+            .withSalt(salt)
+            .build();
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(params);
+        // BouncyCastle 按 UTF-8 编码 char[] 密码
+        generator.generateBytes(password, out);
+        return out;
+      }
+      byte[] bytes = utf8(password);
+      try {
+        return SCrypt.generate(bytes, salt, 1 << cost, rounds, parallelism, length);
+      } finally {
+        Arrays.fill(bytes, (byte) 0);
+      }
+    });
+  }
+
+  private static byte[] utf8(char[] password) {
+    ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+    byte[] bytes = Arrays.copyOfRange(encoded.array(), encoded.position(), encoded.limit());
+    Arrays.fill(encoded.array(), (byte) 0);
+    return bytes;
+  }
+
+  public Algorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  public MemoryBudget getBudget() {
+    return budget;
+  }
+}
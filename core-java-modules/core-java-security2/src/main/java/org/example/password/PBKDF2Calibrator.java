@@ -0,0 +1,323 @@
+package org.example.password;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+/**
+ * 按延迟预算为当前机器选择 PBKDF2 成本值：先预热 JIT，再让 concurrency 个线程同时执行
+ * {@link PBKDF2Hasher#checkPassword(char[], String)}，取 p95 延迟不超过预算的最大成本。
+ *
+ * 成本每加 1 计算量翻倍，所以先用预热阶段测得的迭代速度估算一个起点，再向上或向下逐级验证，
+ * 只需测量两三个成本值。结果同时给出该成本下每个核心每秒可以完成的登录数，用于容量规划。
+ */
+public final class PBKDF2Calibrator {
+
+  /**
+   * 不会低于的成本下限（1024 次迭代），即使预算无法满足也不会继续降低。
+   */
+  public static final int MIN_COST = 10;
+
+  public static final int MAX_COST = 30;
+
+  private static final char[] PASSWORD = "calibration-password".toCharArray();
+
+  private final Duration budget;
+
+  private final int concurrency;
+
+  private final int samplesPerThread;
+
+  private final Duration warmup;
+
+  private final Workload workload;
+
+  private final LongSupplier clock;
+
+  /**
+   * @param budget p95 延迟预算
+   * @param concurrency 同时计算的线程数，通常取预期的并发登录数或 CPU 核数
+   */
+  public PBKDF2Calibrator(Duration budget, int concurrency) {
+    this(budget, concurrency, 10, Duration.ofSeconds(2));
+  }
+
+  PBKDF2Calibrator(Duration budget, int concurrency, int samplesPerThread, Duration warmup) {
+    this(budget, concurrency, samplesPerThread, warmup, PBKDF2Calibrator::pbkdf2Check, System::nanoTime);
+  }
+
+  /**
+   * @param workload 按成本值生成一次校验
+   * @param clock 纳秒时钟，测试时可以换成随 workload 前进的模拟时钟
+   */
+  PBKDF2Calibrator(Duration budget, int concurrency, int samplesPerThread, Duration warmup, Workload workload,
+                   LongSupplier clock) {
+    if (budget.isZero() || budget.isNegative()) {
+      throw new IllegalArgumentException("延迟预算必须为正数: " + budget);
+    }
+    if (concurrency <= 0 || samplesPerThread <= 0) {
+      throw new IllegalArgumentException("并发数和采样次数必须为正数: " + concurrency + ", " + samplesPerThread);
+    }
+    this.budget = budget;
+    this.concurrency = concurrency;
+    this.samplesPerThread = samplesPerThread;
+    this.warmup = warmup;
+    this.workload = workload;
+    this.clock = clock;
+  }
+
+  private static Runnable pbkdf2Check(int cost) {
+    PBKDF2Hasher hasher = new PBKDF2Hasher(cost);
+    String token = hasher.hash(PASSWORD);
+    return () -> hasher.checkPassword(PASSWORD, token);
+  }
+
+  public Result calibrate() {
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    try {
+      double iterationsPerNano = warmUp(executor);
+      // 单线程下恰好用满预算的成本，并发时每个线程分到的 CPU 更少，实际值通常更低
+      int cost = clamp((int) Math.floor(Math.log(budget.toNanos() * iterationsPerNano) / Math.log(2)));
+      List<Measurement> measurements = new ArrayList<>();
+      Measurement best = null;
+      Measurement current = measure(executor, cost);
+      measurements.add(current);
+      if (fits(current)) {
+        best = current;
+        while (cost < MAX_COST) {
+          current = measure(executor, ++cost);
+          measurements.add(current);
+          if (!fits(current)) {
+            break;
+          }
+          best = current;
+        }
+      } else {
+        while (cost > MIN_COST) {
+          current = measure(executor, --cost);
+          measurements.add(current);
+          if (fits(current)) {
+            best = current;
+            break;
+          }
+        }
+      }
+      boolean withinBudget = best != null;
+      if (best == null) {
+        best = current;
+      }
+      int cores = Math.min(concurrency, Runtime.getRuntime().availableProcessors());
+      return new Result(best.cost, withinBudget, best, best.hashesPerSecond / cores, measurements);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private boolean fits(Measurement measurement) {
+    return measurement.p95Nanos <= budget.toNanos();
+  }
+
+  private static int clamp(int cost) {
+    return Math.max(MIN_COST, Math.min(MAX_COST, cost));
+  }
+
+  /**
+   * 以 MIN_COST 在所有线程上持续计算 warmup 时长，返回单线程的迭代速度（次/纳秒）。
+   */
+  private double warmUp(ExecutorService executor) {
+    Runnable check = workload.prepare(MIN_COST);
+    long deadline = clock.getAsLong() + warmup.toNanos();
+    List<Long> nanosPerHash = run(executor, () -> {
+      long count = 0;
+      long start = clock.getAsLong();
+      do {
+        check.run();
+        count++;
+      } while (clock.getAsLong() < deadline);
+      return (clock.getAsLong() - start) / count;
+    });
+    // 取最快线程的单次耗时，代表不受其他线程争用时的速度
+    long fastest = Collections.min(nanosPerHash);
+    return (double) (1 << MIN_COST) / Math.max(1, fastest);
+  }
+
+  private Measurement measure(ExecutorService executor, int cost) {
+    Runnable check = workload.prepare(cost);
+    long start = clock.getAsLong();
+    List<long[]> perThread = run(executor, () -> {
+      long[] latencies = new long[samplesPerThread];
+      for (int i = 0; i < samplesPerThread; i++) {
+        long begin = clock.getAsLong();
+        check.run();
+        latencies[i] = clock.getAsLong() - begin;
+      }
+      return latencies;
+    });
+    long elapsed = Math.max(1, clock.getAsLong() - start);
+    long[] latencies = perThread.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    return new Measurement(cost, percentile(latencies, 0.50), percentile(latencies, 0.95),
+        latencies.length * 1e9 / elapsed);
+  }
+
+  /**
+   * 所有线程就绪后同时开始执行 task，返回每个线程的结果。
+   */
+  private <T> List<T> run(ExecutorService executor, Callable<T> task) {
+    CountDownLatch ready = new CountDownLatch(concurrency);
+    CountDownLatch go = new CountDownLatch(1);
+    List<Future<T>> futures = new ArrayList<>(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(executor.submit(() -> {
+        ready.countDown();
+        go.await();
+        return task.call();
+      }));
+    }
+    List<T> results = new ArrayList<>(concurrency);
+    try {
+      ready.await();
+      go.countDown();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("校准被中断", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("校准失败", e.getCause());
+    }
+    return results;
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    int index = (int) Math.ceil(p * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+
+  /**
+   * 被测量的计算。
+   */
+  interface Workload {
+
+    /**
+     * 准备成本值为 cost 的一次校验（生成令牌等），返回的任务会被多个线程反复执行。
+     */
+    Runnable prepare(int cost);
+  }
+
+  /**
+   * 一个成本值的测量结果。
+   */
+  public static final class Measurement {
+
+    private final int cost;
+
+    private final long p50Nanos;
+
+    private final long p95Nanos;
+
+    private final double hashesPerSecond;
+
+    Measurement(int cost, long p50Nanos, long p95Nanos, double hashesPerSecond) {
+      this.cost = cost;
+      this.p50Nanos = p50Nanos;
+      this.p95Nanos = p95Nanos;
+      this.hashesPerSecond = hashesPerSecond;
+    }
+
+    public int getCost() {
+      return cost;
+    }
+
+    public double getP50Millis() {
+      return p50Nanos / 1e6;
+    }
+
+    public double getP95Millis() {
+      return p95Nanos / 1e6;
+    }
+
+    /**
+     * @return 所有线程合计每秒完成的校验次数
+     */
+    public double getHashesPerSecond() {
+      return hashesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("cost=%d p50=%.1f ms p95=%.1f ms %.1f hashes/s", cost, getP50Millis(), getP95Millis(),
+          hashesPerSecond);
+    }
+  }
+
+  /**
+   * 校准结果。
+   */
+  public static final class Result {
+
+    private final int cost;
+
+    private final boolean withinBudget;
+
+    private final Measurement measurement;
+
+    private final double loginsPerSecondPerCore;
+
+    private final List<Measurement> measurements;
+
+    Result(int cost, boolean withinBudget, Measurement measurement, double loginsPerSecondPerCore,
+           List<Measurement> measurements) {
+      this.cost = cost;
+      this.withinBudget = withinBudget;
+      this.measurement = measurement;
+      this.loginsPerSecondPerCore = loginsPerSecondPerCore;
+      this.measurements = Collections.unmodifiableList(measurements);
+    }
+
+    /**
+     * @return p95 不超过预算的最大成本；预算连 {@link #MIN_COST} 都无法满足时为 MIN_COST
+     */
+    public int getCost() {
+      return cost;
+    }
+
+    public boolean isWithinBudget() {
+      return withinBudget;
+    }
+
+    public Measurement getMeasurement() {
+      return measurement;
+    }
+
+    public double getLoginsPerSecondPerCore() {
+      return loginsPerSecondPerCore;
+    }
+
+    /**
+     * @return 校准过程中测量过的所有成本值
+     */
+    public List<Measurement> getMeasurements() {
+      return measurements;
+    }
+
+    public PBKDF2Hasher newHasher() {
+      return new PBKDF2Hasher(cost);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("cost=%d%s (%s), %.1f logins/s per core", cost, withinBudget ? "" : " 超出预算",
+          measurement, loginsPerSecondPerCore);
+    }
+  }
+}
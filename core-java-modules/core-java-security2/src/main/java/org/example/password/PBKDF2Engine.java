@@ -0,0 +1,522 @@
+package org.example.password;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * PBKDF2（RFC 8018）的实现，伪随机函数为 HMAC-SHA1 或 HMAC-SHA256，输出与 JCA 的
+ * PBKDF2WithHmacSHA1 / PBKDF2WithHmacSHA256 完全一致（char[] 密码同样按 UTF-8 编码）。
+ *
+ * 两种实现的迭代循环内都没有对象分配（JCA 每次迭代分配两个摘要数组）：
+ * <ul>
+ *     <li>{@link Backend#PURE_JAVA}：自带的 SHA-1 / SHA-256 压缩函数。ipad/opad 分组只与密码有关，
+ *         每次派生只压缩一次并保存中间状态；之后每次迭代的消息填充后恰好一个分组，只需两次压缩；</li>
+ *     <li>{@link Backend#MESSAGE_DIGEST}：JDK 的 MessageDigest。CPU 支持 SHA 指令时 HotSpot 用 intrinsic 实现压缩函数，
+ *         单次压缩比纯 Java 快数倍，即使每次迭代要重新压缩 pad 分组（四次压缩）也更快。</li>
+ * </ul>
+ * 默认实现按 JVM 的 UseSHA 选项选择，见 {@link #defaultBackend()}。
+ *
+ * 该类没有状态，可以在多线程环境下并发使用。
+ */
+public final class PBKDF2Engine {
+
+  /**
+   * PBKDF2 使用的伪随机函数。
+   */
+  public enum Prf {
+    HMAC_SHA1(5, "SHA-1"),
+    HMAC_SHA256(8, "SHA-256");
+
+    private final int words;
+
+    private final String digestAlgorithm;
+
+    Prf(int words, String digestAlgorithm) {
+      this.words = words;
+      this.digestAlgorithm = digestAlgorithm;
+    }
+
+    /**
+     * @return HMAC 输出长度（字节）
+     */
+    public int length() {
+      return words * 4;
+    }
+
+    Compressor newCompressor() {
+      return this == HMAC_SHA1 ? new Sha1() : new Sha256();
+    }
+  }
+
+  /**
+   * HMAC 的计算方式。
+   */
+  public enum Backend {
+    PURE_JAVA,
+    MESSAGE_DIGEST
+  }
+
+  private static final int BLOCK_BYTES = 64;
+
+  private static final Backend DEFAULT_BACKEND = detectBackend();
+
+  private PBKDF2Engine() {
+  }
+
+  /**
+   * @return JVM 启用了 SHA 指令（UseSHA）时为 {@link Backend#MESSAGE_DIGEST}，否则为 {@link Backend#PURE_JAVA}
+   */
+  public static Backend defaultBackend() {
+    return DEFAULT_BACKEND;
+  }
+
+  /**
+   * 按 UTF-8 编码 password 后派生密钥，编码用的临时数组在返回前清零。
+   *
+   * @param keyLength 输出长度（字节）
+   */
+  public static byte[] derive(Prf prf, char[] password, byte[] salt, int iterations, int keyLength) {
+    return derive(DEFAULT_BACKEND, prf, password, salt, iterations, keyLength);
+  }
+
+  public static byte[] derive(Backend backend, Prf prf, char[] password, byte[] salt, int iterations, int keyLength) {
+    byte[] bytes = utf8(password);
+    try {
+      return derive(backend, prf, bytes, salt, iterations, keyLength);
+    } finally {
+      Arrays.fill(bytes, (byte) 0);
+    }
+  }
+
+  /**
+   * @param keyLength 输出长度（字节）
+   */
+  public static byte[] derive(Prf prf, byte[] password, byte[] salt, int iterations, int keyLength) {
+    return derive(DEFAULT_BACKEND, prf, password, salt, iterations, keyLength);
+  }
+
+  public static byte[] derive(Backend backend, Prf prf, byte[] password, byte[] salt, int iterations, int keyLength) {
+    if (iterations <= 0 || keyLength <= 0) {
+      throw new IllegalArgumentException("迭代次数和密钥长度必须为正数: " + iterations + ", " + keyLength);
+    }
+    Hmac hmac = backend == Backend.PURE_JAVA ? new JavaHmac(prf, password) : new DigestHmac(prf, password);
+    try {
+      byte[] key = new byte[keyLength];
+      byte[] message = Arrays.copyOf(salt, salt.length + 4);
+      byte[] block = new byte[prf.length()];
+      for (int index = 1, offset = 0; offset < keyLength; index++, offset += block.length) {
+        message[salt.length] = (byte) (index >>> 24);
+        message[salt.length + 1] = (byte) (index >>> 16);
+        message[salt.length + 2] = (byte) (index >>> 8);
+        message[salt.length + 3] = (byte) index;
+        hmac.block(message, iterations, block);
+        System.arraycopy(block, 0, key, offset, Math.min(block.length, keyLength - offset));
+      }
+      Arrays.fill(block, (byte) 0);
+      return key;
+    } finally {
+      hmac.destroy();
+    }
+  }
+
+  private static Backend detectBackend() {
+    try {
+      HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+      if (hotSpot != null && Boolean.parseBoolean(hotSpot.getVMOption("UseSHA").getValue())) {
+        return Backend.MESSAGE_DIGEST;
+      }
+    } catch (RuntimeException | LinkageError e) {
+      // 非 HotSpot 或没有该选项的 JVM
+    }
+    return Backend.PURE_JAVA;
+  }
+
+  /**
+   * 以同一个密码为密钥的 HMAC，计算 PBKDF2 的一个输出块。
+   */
+  private abstract static class Hmac {
+
+    /**
+     * out = U1 ^ U2 ^ ... ^ Uc，其中 U1 = HMAC(P, message)，Uj = HMAC(P, Uj-1)。
+     */
+    abstract void block(byte[] message, int iterations, byte[] out);
+
+    abstract void destroy();
+  }
+
+  private static final class JavaHmac extends Hmac {
+
+    private final Compressor compressor;
+
+    private final int words;
+
+    private final int[] ipad;
+
+    private final int[] opad;
+
+    private final int[] innerBlock = new int[16];
+
+    private final int[] outerBlock = new int[16];
+
+    private final int[] state;
+
+    private final int[] result;
+
+    JavaHmac(Prf prf, byte[] password) {
+      compressor = prf.newCompressor();
+      words = prf.words;
+      ipad = new int[words];
+      opad = new int[words];
+      state = new int[words];
+      result = new int[words];
+      padStates(compressor, password, ipad, opad);
+      // 单分组消息：前 words 个字为上一轮结果，随后是填充和总长度（含 64 字节的 pad 分组）
+      innerBlock[words] = 0x80000000;
+      outerBlock[words] = 0x80000000;
+      innerBlock[15] = (BLOCK_BYTES + prf.length()) * 8;
+      outerBlock[15] = (BLOCK_BYTES + prf.length()) * 8;
+    }
+
+    @Override
+    void block(byte[] message, int iterations, byte[] out) {
+      System.arraycopy(ipad, 0, state, 0, words);
+      compressor.update(state, BLOCK_BYTES, message);
+      System.arraycopy(state, 0, outerBlock, 0, words);
+      System.arraycopy(opad, 0, state, 0, words);
+      compressor.compress(state, outerBlock);
+      System.arraycopy(state, 0, result, 0, words);
+
+      for (int j = 1; j < iterations; j++) {
+        System.arraycopy(state, 0, innerBlock, 0, words);
+        System.arraycopy(ipad, 0, state, 0, words);
+        compressor.compress(state, innerBlock);
+        System.arraycopy(state, 0, outerBlock, 0, words);
+        System.arraycopy(opad, 0, state, 0, words);
+        compressor.compress(state, outerBlock);
+        for (int w = 0; w < words; w++) {
+          result[w] ^= state[w];
+        }
+      }
+      for (int w = 0; w < words; w++) {
+        out[w * 4] = (byte) (result[w] >>> 24);
+        out[w * 4 + 1] = (byte) (result[w] >>> 16);
+        out[w * 4 + 2] = (byte) (result[w] >>> 8);
+        out[w * 4 + 3] = (byte) result[w];
+      }
+    }
+
+    @Override
+    void destroy() {
+      Arrays.fill(ipad, 0);
+      Arrays.fill(opad, 0);
+      Arrays.fill(state, 0);
+      Arrays.fill(result, 0);
+      Arrays.fill(innerBlock, 0);
+      Arrays.fill(outerBlock, 0);
+    }
+  }
+
+  private static final class DigestHmac extends Hmac {
+
+    private final MessageDigest inner;
+
+    private final MessageDigest outer;
+
+    private final byte[] ipad = new byte[BLOCK_BYTES];
+
+    private final byte[] opad = new byte[BLOCK_BYTES];
+
+    private final byte[] u;
+
+    DigestHmac(Prf prf, byte[] password) {
+      try {
+        inner = MessageDigest.getInstance(prf.digestAlgorithm);
+        outer = MessageDigest.getInstance(prf.digestAlgorithm);
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("缺少算法: " + prf.digestAlgorithm, e);
+      }
+      byte[] key = password.length > BLOCK_BYTES ? inner.digest(password) : password;
+      for (int i = 0; i < BLOCK_BYTES; i++) {
+        byte k = i < key.length ? key[i] : 0;
+        ipad[i] = (byte) (k ^ 0x36);
+        opad[i] = (byte) (k ^ 0x5C);
+      }
+      if (key != password) {
+        Arrays.fill(key, (byte) 0);
+      }
+      u = new byte[prf.length()];
+    }
+
+    @Override
+    void block(byte[] message, int iterations, byte[] out) {
+      try {
+        inner.update(ipad);
+        inner.update(message);
+        inner.digest(u, 0, u.length);
+        outer.update(opad);
+        outer.update(u);
+        outer.digest(u, 0, u.length);
+        System.arraycopy(u, 0, out, 0, u.length);
+
+        // digest(byte[], int, int) 写入已有数组，不像 digest() 那样每次返回新数组
+        for (int j = 1; j < iterations; j++) {
+          inner.update(ipad);
+          inner.update(u);
+          inner.digest(u, 0, u.length);
+          outer.update(opad);
+          outer.update(u);
+          outer.digest(u, 0, u.length);
+          for (int i = 0; i < u.length; i++) {
+            out[i] ^= u[i];
+          }
+        }
+      } catch (DigestException e) {
+        throw new IllegalStateException("摘要计算失败", e);
+      }
+    }
+
+    @Override
+    void destroy() {
+      Arrays.fill(ipad, (byte) 0);
+      Arrays.fill(opad, (byte) 0);
+      Arrays.fill(u, (byte) 0);
+    }
+  }
+
+  /**
+   * 计算 HMAC 密钥与 ipad/opad 异或后的分组压缩一次后的中间状态。
+   */
+  private static void padStates(Compressor compressor, byte[] password, int[] ipad, int[] opad) {
+    byte[] key = password;
+    if (key.length > BLOCK_BYTES) {
+      int[] state = compressor.initialState();
+      compressor.update(state, 0, password);
+      key = toBytes(state);
+    }
+    int[] block = new int[16];
+    for (int i = 0; i < 16; i++) {
+      int word = 0;
+      for (int b = 0; b < 4; b++) {
+        int index = i * 4 + b;
+        word = word << 8 | (index < key.length ? key[index] & 0xFF : 0);
+      }
+      block[i] = word;
+    }
+    int[] inner = compressor.initialState();
+    int[] outer = compressor.initialState();
+    int[] padded = new int[16];
+    for (int i = 0; i < 16; i++) {
+      padded[i] = block[i] ^ 0x36363636;
+    }
+    compressor.compress(inner, padded);
+    for (int i = 0; i < 16; i++) {
+      padded[i] = block[i] ^ 0x5C5C5C5C;
+    }
+    compressor.compress(outer, padded);
+    System.arraycopy(inner, 0, ipad, 0, ipad.length);
+    System.arraycopy(outer, 0, opad, 0, opad.length);
+    Arrays.fill(block, 0);
+    Arrays.fill(padded, 0);
+    if (key != password) {
+      Arrays.fill(key, (byte) 0);
+    }
+  }
+
+  private static byte[] toBytes(int[] words) {
+    byte[] bytes = new byte[words.length * 4];
+    for (int i = 0; i < words.length; i++) {
+      bytes[i * 4] = (byte) (words[i] >>> 24);
+      bytes[i * 4 + 1] = (byte) (words[i] >>> 16);
+      bytes[i * 4 + 2] = (byte) (words[i] >>> 8);
+      bytes[i * 4 + 3] = (byte) words[i];
+    }
+    return bytes;
+  }
+
+  private static byte[] utf8(char[] password) {
+    try {
+      ByteBuffer encoded = StandardCharsets.UTF_8.newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE)
+          .encode(CharBuffer.wrap(password));
+      byte[] bytes = Arrays.copyOfRange(encoded.array(), encoded.arrayOffset() + encoded.position(),
+          encoded.arrayOffset() + encoded.limit());
+      Arrays.fill(encoded.array(), (byte) 0);
+      return bytes;
+    } catch (CharacterCodingException e) {
+      throw new IllegalStateException("UTF-8 编码失败", e);
+    }
+  }
+
+  /**
+   * SHA-1 / SHA-256 的压缩函数，状态和分组都以大端 int 表示。
+   */
+  abstract static class Compressor {
+
+    abstract int[] initialState();
+
+    /**
+     * 以 16 个字的分组更新 state，不分配对象。
+     */
+    abstract void compress(int[] state, int[] block);
+
+    /**
+     * 从 state 继续处理 message 并完成填充，prefixLength 为 state 已经处理过的字节数。
+     */
+    void update(int[] state, long prefixLength, byte[] message) {
+      long bitLength = (prefixLength + message.length) * 8;
+      int paddedLength = (message.length + 9 + BLOCK_BYTES - 1) / BLOCK_BYTES * BLOCK_BYTES;
+      byte[] padded = Arrays.copyOf(message, paddedLength);
+      padded[message.length] = (byte) 0x80;
+      for (int i = 0; i < 8; i++) {
+        padded[paddedLength - 1 - i] = (byte) (bitLength >>> (8 * i));
+      }
+      int[] block = new int[16];
+      for (int offset = 0; offset < paddedLength; offset += BLOCK_BYTES) {
+        for (int i = 0; i < 16; i++) {
+          int p = offset + i * 4;
+          block[i] = (padded[p] & 0xFF) << 24 | (padded[p + 1] & 0xFF) << 16
+              | (padded[p + 2] & 0xFF) << 8 | padded[p + 3] & 0xFF;
+        }
+        compress(state, block);
+      }
+      Arrays.fill(padded, (byte) 0);
+      Arrays.fill(block, 0);
+    }
+  }
+
+  private static final class Sha1 extends Compressor {
+
+    private final int[] w = new int[80];
+
+    @Override
+    int[] initialState() {
+      return new int[]{0x67452301, 0xEFCDAB89, 0x98BADCFE, 0x10325476, 0xC3D2E1F0};
+    }
+
+    @Override
+    void compress(int[] state, int[] block) {
+      int[] w = this.w;
+      System.arraycopy(block, 0, w, 0, 16);
+      for (int t = 16; t < 80; t++) {
+        w[t] = Integer.rotateLeft(w[t - 3] ^ w[t - 8] ^ w[t - 14] ^ w[t - 16], 1);
+      }
+      int a = state[0];
+      int b = state[1];
+      int c = state[2];
+      int d = state[3];
+      int e = state[4];
+      for (int t = 0; t < 20; t++) {
+        int temp = Integer.rotateLeft(a, 5) + ((b & c) | (~b & d)) + e + w[t] + 0x5A827999;
+        e = d;
+        d = c;
+        c = Integer.rotateLeft(b, 30);
+        b = a;
+        a = temp;
+      }
+      for (int t = 20; t < 40; t++) {
+        int temp = Integer.rotateLeft(a, 5) + (b ^ c ^ d) + e + w[t] + 0x6ED9EBA1;
+        e = d;
+        d = c;
+        c = Integer.rotateLeft(b, 30);
+        b = a;
+        a = temp;
+      }
+      for (int t = 40; t < 60; t++) {
+        int temp = Integer.rotateLeft(a, 5) + ((b & c) | (b & d) | (c & d)) + e + w[t] + 0x8F1BBCDC;
+        e = d;
+        d = c;
+        c = Integer.rotateLeft(b, 30);
+        b = a;
+        a = temp;
+      }
+      for (int t = 60; t < 80; t++) {
+        int temp = Integer.rotateLeft(a, 5) + (b ^ c ^ d) + e + w[t] + 0xCA62C1D6;
+        e = d;
+        d = c;
+        c = Integer.rotateLeft(b, 30);
+        b = a;
+        a = temp;
+      }
+      state[0] += a;
+      state[1] += b;
+      state[2] += c;
+      state[3] += d;
+      state[4] += e;
+    }
+  }
+
+  private static final class Sha256 extends Compressor {
+
+    private static final int[] K = {
+        0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+        0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+        0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+        0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+        0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+        0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+        0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+        0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+    };
+
+    private final int[] w = new int[64];
+
+    @Override
+    int[] initialState() {
+      return new int[]{0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19};
+    }
+
+    @Override
+    void compress(int[] state, int[] block) {
+      int[] w = this.w;
+      System.arraycopy(block, 0, w, 0, 16);
+      for (int t = 16; t < 64; t++) {
+        int s0 = Integer.rotateRight(w[t - 15], 7) ^ Integer.rotateRight(w[t - 15], 18) ^ (w[t - 15] >>> 3);
+        int s1 = Integer.rotateRight(w[t - 2], 17) ^ Integer.rotateRight(w[t - 2], 19) ^ (w[t - 2] >>> 10);
+        w[t] = w[t - 16] + s0 + w[t - 7] + s1;
+      }
+      int a = state[0];
+      int b = state[1];
+      int c = state[2];
+      int d = state[3];
+      int e = state[4];
+      int f = state[5];
+      int g = state[6];
+      int h = state[7];
+      for (int t = 0; t < 64; t++) {
+        int s1 = Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25);
+        int ch = (e & f) ^ (~e & g);
+        int temp1 = h + s1 + ch + K[t] + w[t];
+        int s0 = Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22);
+        int maj = (a & b) ^ (a & c) ^ (b & c);
+        int temp2 = s0 + maj;
+        h = g;
+        g = f;
+        f = e;
+        e = d + temp1;
+        d = c;
+        c = b;
+        b = a;
+        a = temp1 + temp2;
+      }
+      state[0] += a;
+      state[1] += b;
+      state[2] += c;
+      state[3] += d;
+      state[4] += e;
+      state[5] += f;
+      state[6] += g;
+      state[7] += h;
+    }
+  }
+}
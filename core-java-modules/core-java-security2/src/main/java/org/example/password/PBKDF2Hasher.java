@@ -1,18 +1,13 @@
 package org.example.password;
 
-import java.security.NoSuchAlgorithmException;
+import org.example.hash.Base64UrlCodec;
+
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.PBEKeySpec;
-
-
 /**
  * 密码存储哈希工具类，用于存储密码的哈希值及验证密码是否与存储的哈希令牌匹配。
  *
@@ -34,8 +29,6 @@ public final class PBKDF2Hasher
    */
   public static final int DEFAULT_COST = 16;
 
-  private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
-
   private static final int SIZE = 128;
 
   private static final Pattern LAYOUT_PATTERN = Pattern.compile("\\$31\\$(\\d\\d?)\\$(.{43})");
@@ -81,8 +74,7 @@ public final class PBKDF2Hasher
     byte[] hash = new byte[salt.length + dk.length];
     System.arraycopy(salt, 0, hash, 0, salt.length);
     System.arraycopy(dk, 0, hash, salt.length, dk.length);
-    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
-    return ID + cost + '$' + encoder.encodeToString(hash);
+    return ID + cost + '$' + Base64UrlCodec.encodeToString(hash);
   }
 
   /**
@@ -105,19 +97,12 @@ public final class PBKDF2Hasher
     return zero == 0;
   }
 
+  /**
+   * 等价于 JCA 的 PBKDF2WithHmacSHA1，由 {@link PBKDF2Engine} 计算，迭代过程中不分配对象。
+   */
   private static byte[] pbkdf2(char[] password, byte[] salt, int iterations)
   {
-    KeySpec spec = new PBEKeySpec(password, salt, iterations, SIZE);
-    try {
-      SecretKeyFactory factory = SecretKeyFactory.getInstance(ALGORITHM);
-      return factory.generateSecret(spec).getEncoded();
-    }
-    catch (NoSuchAlgorithmException ex) {
-      throw new IllegalStateException("缺少算法: " + ALGORITHM, ex);
-    }
-    catch (InvalidKeySpecException ex) {
-      throw new IllegalStateException("无效的密钥工厂", ex);
-    }
+    return PBKDF2Engine.derive(PBKDF2Engine.Prf.HMAC_SHA1, password, salt, iterations, SIZE / 8);
   }
 
   @Deprecated
@@ -1,15 +1,39 @@
 package org.example.password;
 
-import java.nio.charset.StandardCharsets;
+import org.example.hash.DigestPool;
+import org.example.hash.HexCodec;
+
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import static org.example.hash.DigestAlgorithms.SHA_512;
 
 /**
  * SHA512Hasher类提供了SHA-512散列算法的实现，用于对密码进行加密。
  * 这种散列算法具有较高的安全性，适用于存储敏感信息，如用户密码。
+ *
+ * 字节接口直接存储和比较 64 字节的原始摘要：校验时密码按 UTF-8 编码到线程私有的缓冲区，
+ * 摘要也写入线程私有的数组，再用 {@link MessageDigest#isEqual(byte[], byte[])} 做常量时间比较，
+ * 整个过程不分配对象。十六进制字符串接口保留以兼容已有数据。
  */
 public class SHA512Hasher {
 
+  /**
+   * 原始摘要长度（字节）。
+   */
+  public static final int HASH_LENGTH = 64;
+
+  /**
+   * 批量校验时超过该记录数才并行计算。
+   */
+  private static final int PARALLEL_THRESHOLD = 4096;
+
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
   /**
    * 使用SHA-512散列算法对给定的密码进行散列。
    *
@@ -18,27 +42,18 @@ public class SHA512Hasher {
    * @return 返回散列后的密码字符串。
    */
   public String hash(String passwordToHash, byte[] salt){
-    String generatedPassword = null;
-    try {
-      // 实例化SHA-512散列算法的消息摘要对象
-      MessageDigest md = MessageDigest.getInstance("SHA-512");
-      // 使用盐值更新消息摘要
-      md.update(salt);
-      // 对密码字符串进行散列处理
-      byte[] bytes = md.digest(passwordToHash.getBytes(StandardCharsets.UTF_8));
-      // 将散列结果转换为十六进制字符串
-      StringBuilder sb = new StringBuilder();
-      for(int i=0; i< bytes.length ;i++){
-        // 将每个字节转换为十六进制字符串，并确保字符串长度为2
-        sb.append(Integer.toString((bytes[i] & 0xff) + 0x100, 16).substring(1));
-      }
-      generatedPassword = sb.toString();
-    }
-    catch (NoSuchAlgorithmException e){
-      // 如果散列算法不存在，打印堆栈跟踪
-      e.printStackTrace();
-    }
-    return generatedPassword;
+    return HexCodec.encodeToString(hash(passwordToHash.toCharArray(), salt));
+  }
+
+  /**
+   * 计算 SHA-512(salt || UTF-8(password))，与 {@link #hash(String, byte[])} 的结果对应同一个摘要。
+   *
+   * @return 64 字节的原始摘要
+   */
+  public byte[] hash(char[] password, byte[] salt) {
+    byte[] hash = new byte[HASH_LENGTH];
+    digest(password, salt, hash);
+    return hash;
   }
 
   /**
@@ -50,9 +65,126 @@ public class SHA512Hasher {
    * @return 如果散列后的密码与预散列值匹配，则返回true；否则返回false。
    */
   public boolean checkPassword(String hash, String attempt, byte[] salt){
-    // 使用给定的密码和盐值重新散列，并与预散列值进行比较
-    String generatedHash = hash(attempt, salt);
-    return hash.equals(generatedHash);
+    if (hash.length() != HASH_LENGTH * 2) {
+      return false;
+    }
+    byte[] expected = SCRATCH.get().expected;
+    try {
+      HexCodec.decode(hash, expected, 0);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return checkPassword(expected, attempt.toCharArray(), salt);
+  }
+
+  /**
+   * 以常量时间比较 attempt 的摘要与 hash，不分配对象。
+   *
+   * @param hash 64 字节的原始摘要
+   */
+  public boolean checkPassword(byte[] hash, char[] attempt, byte[] salt) {
+    byte[] actual = SCRATCH.get().digest;
+    digest(attempt, salt, actual);
+    return MessageDigest.isEqual(hash, actual);
+  }
+
+  /**
+   * 批量校验，用于大规模的凭据审计（例如检查哪些账号使用了泄露字典中的密码）。
+   * 记录数较多时按 64 条一组并行计算，每个线程使用自己的摘要对象和缓冲区。
+   *
+   * @param hashes 每条记录的 64 字节原始摘要
+   * @param attempts 每条记录要校验的密码
+   * @param salts 每条记录的盐值
+   * @return 第 i 位表示 attempts[i] 是否与 hashes[i] 匹配
+   */
+  public BitSet checkPasswords(byte[][] hashes, char[][] attempts, byte[][] salts) {
+    int count = hashes.length;
+    if (attempts.length != count || salts.length != count) {
+      throw new IllegalArgumentException("记录数不一致: " + count + ", " + attempts.length + ", " + salts.length);
+    }
+    long[] words = new long[(count + 63) >>> 6];
+    IntStream indexes = IntStream.range(0, words.length);
+    if (count >= PARALLEL_THRESHOLD) {
+      indexes = indexes.parallel();
+    }
+    indexes.forEach(word -> {
+      long bits = 0;
+      int end = Math.min(count, (word + 1) << 6);
+      for (int i = word << 6; i < end; i++) {
+        if (checkPassword(hashes[i], attempts[i], salts[i])) {
+          bits |= 1L << (i & 63);
+        }
+      }
+      words[word] = bits;
+    });
+    return BitSet.valueOf(words);
+  }
+
+  /**
+   * 将 SHA-512(salt || UTF-8(password)) 写入 out 的前 64 个字节，编码后的密码用完即清零。
+   */
+  private static void digest(char[] password, byte[] salt, byte[] out) {
+    Scratch scratch = SCRATCH.get();
+    int length = scratch.encode(password);
+    try {
+      // 获取当前线程复用的SHA-512消息摘要对象
+      MessageDigest md = DigestPool.threadLocal(SHA_512);
+      md.update(salt);
+      md.update(scratch.password, 0, length);
+      md.digest(out, 0, HASH_LENGTH);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("缺少算法: " + SHA_512, e);
+    } catch (DigestException e) {
+      throw new IllegalStateException("摘要计算失败", e);
+    } finally {
+      Arrays.fill(scratch.password, 0, length, (byte) 0);
+    }
   }
 
+  /**
+   * 线程私有的缓冲区，只在容纳不下更长的密码时扩容。
+   */
+  private static final class Scratch {
+
+    private byte[] password = new byte[64];
+
+    private final byte[] digest = new byte[HASH_LENGTH];
+
+    private final byte[] expected = new byte[HASH_LENGTH];
+
+    /**
+     * 按 UTF-8 编码到 password，单独的代理字符编码为 '?'，与 String.getBytes(UTF_8) 一致。
+     *
+     * @return 编码后的字节数
+     */
+    int encode(char[] chars) {
+      if (password.length < chars.length * 3) {
+        password = new byte[chars.length * 3];
+      }
+      byte[] out = password;
+      int n = 0;
+      for (int i = 0; i < chars.length; i++) {
+        char c = chars[i];
+        if (c < 0x80) {
+          out[n++] = (byte) c;
+        } else if (c < 0x800) {
+          out[n++] = (byte) (0xC0 | c >> 6);
+          out[n++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && i + 1 < chars.length && Character.isLowSurrogate(chars[i + 1])) {
+          int cp = Character.toCodePoint(c, chars[++i]);
+          out[n++] = (byte) (0xF0 | cp >> 18);
+          out[n++] = (byte) (0x80 | cp >> 12 & 0x3F);
+          out[n++] = (byte) (0x80 | cp >> 6 & 0x3F);
+          out[n++] = (byte) (0x80 | cp & 0x3F);
+        } else if (Character.isSurrogate(c)) {
+          out[n++] = '?';
+        } else {
+          out[n++] = (byte) (0xE0 | c >> 12);
+          out[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+          out[n++] = (byte) (0x80 | c & 0x3F);
+        }
+      }
+      return n;
+    }
+  }
 }
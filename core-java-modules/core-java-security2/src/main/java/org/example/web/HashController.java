@@ -0,0 +1,117 @@
+package org.example.web;
+
+import org.example.hash.DigestAlgorithms;
+import org.example.hash.DigestPool;
+import org.example.hash.HexCodec;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * 流式摘要接口：POST /hash/{algorithm}，请求体按固定大小的块直接送入摘要，不在内存中缓存整个请求体，
+ * 因此多 GB 的上传也只占用一个块的内存。
+ *
+ * 支持的算法：sha-256、sha3-256、keccak-256、crc32（不区分大小写）。
+ */
+@RestController
+@RequestMapping("/hash")
+public class HashController {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE]);
+
+    @PostMapping("/{algorithm}")
+    public HashResult hash(@PathVariable String algorithm, HttpServletRequest request)
+            throws IOException, NoSuchAlgorithmException {
+        String name = algorithm.toLowerCase(Locale.ROOT);
+        if ("crc32".equals(name)) {
+            return crc32(request.getInputStream());
+        }
+        return digest(digestAlgorithm(name), request.getInputStream());
+    }
+
+    private static HashResult digest(String algorithm, InputStream body) throws IOException, NoSuchAlgorithmException {
+        byte[] chunk = CHUNK.get();
+        try (DigestPool.Lease lease = DigestPool.borrow(algorithm)) {
+            MessageDigest digest = lease.digest();
+            long total = 0;
+            int read;
+            while ((read = body.read(chunk)) >= 0) {
+                digest.update(chunk, 0, read);
+                total += read;
+            }
+            return new HashResult(algorithm, total, HexCodec.encodeToString(digest.digest()));
+        }
+    }
+
+    private static HashResult crc32(InputStream body) throws IOException {
+        byte[] chunk = CHUNK.get();
+        CRC32 crc32 = new CRC32();
+        long total = 0;
+        int read;
+        while ((read = body.read(chunk)) >= 0) {
+            crc32.update(chunk, 0, read);
+            total += read;
+        }
+        byte[] value = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc32.getValue()).array();
+        return new HashResult("CRC32", total, HexCodec.encodeToString(value));
+    }
+
+    private static String digestAlgorithm(String name) {
+        switch (name) {
+            case "sha-256":
+            case "sha256":
+                return DigestAlgorithms.SHA_256;
+            case "sha3-256":
+                return DigestAlgorithms.SHA3_256;
+            case "keccak-256":
+            case "keccak256":
+                return DigestAlgorithms.KECCAK_256;
+            default:
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "不支持的算法: " + name);
+        }
+    }
+
+    /**
+     * 接口返回结果：算法、请求体字节数和十六进制摘要。
+     */
+    public static class HashResult {
+
+        private final String algorithm;
+
+        private final long bytes;
+
+        private final String hash;
+
+        public HashResult(String algorithm, long bytes, String hash) {
+            this.algorithm = algorithm;
+            this.bytes = bytes;
+            this.hash = hash;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.check;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockDeltaUnitTest {
+
+    private static final int BLOCK_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void givenWindow_whenRolled_thenEqualsFreshChecksum() {
+        byte[] data = new byte[300];
+        new Random(1).nextBytes(data);
+        RollingChecksum rolling = new RollingChecksum();
+        rolling.reset(data, 0, BLOCK_SIZE);
+
+        for (int i = 1; i + BLOCK_SIZE <= data.length; i++) {
+            rolling.roll(data[i - 1], data[i + BLOCK_SIZE - 1]);
+            assertEquals("offset=" + i, RollingChecksum.of(data, i, BLOCK_SIZE), rolling.getValue());
+        }
+    }
+
+    @Test
+    public void givenSmallEditInLargeFile_whenDiffed_thenOnlyChangedBytesAreLiteral() throws IOException {
+        byte[] oldVersion = random(100 * BLOCK_SIZE + 17, 2);
+        byte[] newVersion = new byte[oldVersion.length + 3];
+        // 在中间插入 3 个字节，后面所有块的偏移都会错位
+        int at = 40 * BLOCK_SIZE + 5;
+        System.arraycopy(oldVersion, 0, newVersion, 0, at);
+        newVersion[at] = 1;
+        newVersion[at + 1] = 2;
+        newVersion[at + 2] = 3;
+        System.arraycopy(oldVersion, at, newVersion, at + 3, oldVersion.length - at);
+
+        BlockDelta.Stats stats = roundTrip(oldVersion, newVersion);
+
+        assertTrue(stats.toString(), stats.getLiteralBytes() <= BLOCK_SIZE + 3);
+        assertEquals(newVersion.length, stats.getCopiedBytes() + stats.getLiteralBytes());
+        assertTrue(stats.toString(), stats.getDeltaBytes() < 2 * BLOCK_SIZE + 64);
+    }
+
+    @Test
+    public void givenEdgeCases_whenDiffedAndPatched_thenNewVersionRebuilt() throws IOException {
+        byte[] data = random(10 * BLOCK_SIZE + 9, 3);
+
+        assertEquals(data.length, roundTrip(data, data).getCopiedBytes());
+        assertEquals(data.length, roundTrip(new byte[0], data).getLiteralBytes());
+        assertEquals(0, roundTrip(data, new byte[0]).getCopiedBytes());
+        roundTrip(data, Arrays.copyOf(data, 5 * BLOCK_SIZE));
+        roundTrip(data, random(3 * BLOCK_SIZE, 4));
+        byte[] repeated = new byte[8 * BLOCK_SIZE];
+        roundTrip(repeated, Arrays.copyOf(repeated, 20 * BLOCK_SIZE + 1));
+    }
+
+    @Test
+    public void givenBlocksWithSameWeakChecksum_whenDiffed_thenStrongChecksumPicksTheRightBlock() throws IOException {
+        byte[] first = random(BLOCK_SIZE, 7);
+        first[0] = first[1] = first[2] = 100;
+        // +1、-2、+1 同时保持两个分量不变，弱校验和相同而内容不同
+        byte[] second = first.clone();
+        second[0]++;
+        second[1] -= 2;
+        second[2]++;
+        assertEquals(RollingChecksum.of(first, 0, BLOCK_SIZE), RollingChecksum.of(second, 0, BLOCK_SIZE));
+
+        byte[] oldVersion = concat(first, second);
+        byte[] newVersion = concat(second, first, second);
+        assertEquals(newVersion.length, roundTrip(oldVersion, newVersion).getCopiedBytes());
+    }
+
+    @Test(expected = IOException.class)
+    public void givenDifferentOldVersion_whenPatched_thenChecksumMismatchDetected() throws IOException {
+        byte[] oldVersion = random(10 * BLOCK_SIZE, 5);
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        BlockDelta.diff(BlockDelta.signature(new ByteArrayInputStream(oldVersion), BLOCK_SIZE),
+                new ByteArrayInputStream(oldVersion), delta);
+
+        oldVersion[3]++;
+        patch(oldVersion, delta.toByteArray());
+    }
+
+    @Test
+    public void givenCorruptHeaderOrBlockReference_whenPatched_thenRejectedAsIOException() throws IOException {
+        byte[] oldVersion = random(10 * BLOCK_SIZE, 6);
+        byte[][] corrupt = {
+                copyDelta(Integer.MAX_VALUE, 0, 1),
+                copyDelta(0, 0, 1),
+                copyDelta(-BLOCK_SIZE, 0, 1),
+                // 块号乘以块大小会溢出为负数
+                copyDelta(BLOCK_SIZE, Long.MAX_VALUE / BLOCK_SIZE + 1, 1),
+                copyDelta(BLOCK_SIZE, 0, Long.MAX_VALUE),
+                copyDelta(BLOCK_SIZE, -1, 1),
+                copyDelta(BLOCK_SIZE, 10, 1),
+                copyDelta(BLOCK_SIZE, 3, 0),
+        };
+        for (int i = 0; i < corrupt.length; i++) {
+            try {
+                patch(oldVersion, corrupt[i]);
+                fail("第 " + i + " 个损坏的差量未被拒绝");
+            } catch (IOException expected) {
+                // 期望的结果
+            }
+        }
+    }
+
+    private BlockDelta.Stats roundTrip(byte[] oldVersion, byte[] newVersion) throws IOException {
+        BlockDelta.Signature signature = BlockDelta.signature(new ByteArrayInputStream(oldVersion), BLOCK_SIZE);
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        BlockDelta.Stats stats = BlockDelta.diff(signature, new ByteArrayInputStream(newVersion), delta);
+
+        assertEquals(stats.getDeltaBytes(), delta.size());
+        assertArrayEquals(newVersion, patch(oldVersion, delta.toByteArray()));
+        return stats;
+    }
+
+    private byte[] patch(byte[] oldVersion, byte[] delta) throws IOException {
+        Path oldFile = folder.newFile().toPath();
+        Files.write(oldFile, oldVersion);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(oldFile)) {
+            BlockDelta.patch(channel, new ByteArrayInputStream(delta), out);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] copyDelta(int blockSize, long firstBlock, long blockCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BlockDelta.MAGIC);
+        out.writeByte(BlockDelta.VERSION);
+        out.writeInt(blockSize);
+        out.writeByte(1);
+        BlockDelta.writeVarLong(out, firstBlock);
+        BlockDelta.writeVarLong(out, blockCount);
+        out.writeByte(0);
+        out.write(new byte[32]);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
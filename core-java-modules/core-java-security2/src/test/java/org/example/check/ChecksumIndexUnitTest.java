@@ -0,0 +1,144 @@
+package org.example.check;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ChecksumIndexUnitTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void givenSavedIndex_whenRescannedWithoutChanges_thenNothingIsRead() throws IOException {
+        Path root = tree();
+        Path indexFile = root.resolve(".checksums");
+
+        ChecksumIndex index = ChecksumIndex.load(indexFile);
+        ChecksumIndex.ScanResult first = index.scan(root);
+        index.save();
+
+        assertEquals(3, first.getUpdated());
+        assertEquals(3, index.size());
+
+        ChecksumIndex reloaded = ChecksumIndex.load(indexFile);
+        ChecksumIndex.ScanResult second = reloaded.scan(root);
+
+        assertEquals(3, second.getUnchanged());
+        assertEquals(0, second.getUpdated());
+        assertEquals(0, second.getBytesRead());
+        assertEquals(ChecksumUtils.getChecksumCRC32("hello".getBytes()), reloaded.get("a.txt").get().getCrc32());
+    }
+
+    @Test
+    public void givenModifiedAndDeletedFiles_whenRescanned_thenOnlyThoseAreUpdated() throws IOException {
+        Path root = tree();
+        ChecksumIndex index = ChecksumIndex.load(folder.getRoot().toPath().resolve("index.bin"));
+        index.scan(root);
+
+        Files.write(root.resolve("a.txt"), "hello, world".getBytes());
+        Files.delete(root.resolve("dir/c.txt"));
+        ChecksumIndex.ScanResult result = index.scan(root);
+
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getRemoved());
+        assertEquals("hello, world".length(), result.getBytesRead());
+        assertFalse(index.get("dir/c.txt").isPresent());
+    }
+
+    @Test
+    public void givenSilentCorruption_whenScrubbed_thenReportedAndOriginalChecksumKept() throws IOException {
+        Path root = tree();
+        Path file = root.resolve("a.txt");
+        ChecksumIndex index = ChecksumIndex.load(folder.getRoot().toPath().resolve("index.bin"));
+        index.scan(root);
+        String original = index.get("a.txt").get().getSha256();
+
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.write(file, "jello".getBytes());
+        Files.setLastModifiedTime(file, modified);
+
+        assertEquals(Collections.emptyList(), index.scan(root).getCorrupted());
+        ChecksumIndex.ScanResult scrub = index.scan(root, Duration.ZERO, 2);
+
+        assertEquals(3, scrub.getScrubbed());
+        assertEquals(Collections.singletonList("a.txt"), scrub.getCorrupted());
+        assertEquals(original, index.get("a.txt").get().getSha256());
+    }
+
+    @Test
+    public void givenFileRewrittenWithinTimestampGranularity_whenRescanned_thenReadAgain() throws IOException {
+        Path root = folder.newFolder("racy").toPath();
+        Path file = root.resolve("a.txt");
+        Files.write(file, "hello".getBytes());
+        ChecksumIndex index = ChecksumIndex.load(folder.getRoot().toPath().resolve("index.bin"));
+        index.scan(root);
+
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.write(file, "jello".getBytes());
+        Files.setLastModifiedTime(file, modified);
+        ChecksumIndex.ScanResult result = index.scan(root);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(ChecksumUtils.getChecksumCRC32("jello".getBytes()), index.get("a.txt").get().getCrc32());
+    }
+
+    @Test
+    public void givenVersionOneIndex_whenLoaded_thenRecordsRead() throws IOException {
+        Path indexFile = folder.newFile("v1-index").toPath();
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(indexFile))) {
+            out.writeInt(ChecksumIndex.MAGIC);
+            out.writeShort(1);
+            out.writeInt(1);
+            out.writeUTF("dir/文件.txt");
+            out.writeLong(5);
+            out.writeLong(42);
+            out.writeLong(-1);
+            out.writeInt(0x3610a686);
+            out.write(new byte[32]);
+            out.writeLong(7);
+        }
+
+        ChecksumIndex index = ChecksumIndex.load(indexFile);
+        index.save();
+        ChecksumIndex.Record record = ChecksumIndex.load(indexFile).get("dir/文件.txt").get();
+
+        assertEquals(5, record.getSize());
+        assertEquals(0x3610a686L, record.getCrc32());
+        assertEquals(7, record.getVerifiedAt());
+    }
+
+    @Test(expected = IOException.class)
+    public void givenFileWithoutMagic_whenLoaded_thenRejected() throws IOException {
+        Path indexFile = folder.newFile("not-an-index").toPath();
+        Files.write(indexFile, "plain text".getBytes());
+
+        ChecksumIndex.load(indexFile);
+    }
+
+    private Path tree() throws IOException {
+        Path root = folder.newFolder("tree").toPath();
+        Files.createDirectories(root.resolve("dir"));
+        Files.write(root.resolve("a.txt"), "hello".getBytes());
+        Files.write(root.resolve("dir/b.txt"), "b".getBytes());
+        Files.write(root.resolve("dir/c.txt"), "c".getBytes());
+        // 修改时间早于扫描时刻足够久，否则下次扫描会把它们当作可能在同一时间戳精度内被改写的文件重新读取
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        for (String name : new String[]{"a.txt", "dir/b.txt", "dir/c.txt"}) {
+            Files.setLastModifiedTime(root.resolve(name), old);
+        }
+        return root;
+    }
+}
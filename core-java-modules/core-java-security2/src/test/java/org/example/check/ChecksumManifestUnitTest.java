@@ -0,0 +1,133 @@
+package org.example.check;
+
+import org.example.hash.DigestAlgorithms;
+import org.example.hash.FileHashing;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+public class ChecksumManifestUnitTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void givenDirectoryTree_whenManifestBuilt_thenEntriesSortedAndChecksumsMatch()
+            throws IOException, NoSuchAlgorithmException {
+        Path root = folder.newFolder("release").toPath();
+        Random random = new Random(5);
+        byte[] large = new byte[10 * 1000 + 7];
+        random.nextBytes(large);
+        Files.write(root.resolve("large.bin"), large);
+        Files.createDirectories(root.resolve("lib/nested"));
+        Files.write(root.resolve("lib/nested/with space.txt"), "hello".getBytes());
+        Files.write(root.resolve("lib/empty"), new byte[0]);
+        Files.write(root.resolve("a.txt"), "a".getBytes());
+
+        ChecksumManifest manifest = ChecksumManifest.build(root, 3, 1000);
+
+        List<ChecksumManifest.Entry> entries = manifest.entries();
+        assertEquals(4, entries.size());
+        assertEquals("a.txt", entries.get(0).getPath());
+        assertEquals("large.bin", entries.get(1).getPath());
+        assertEquals("lib/empty", entries.get(2).getPath());
+        assertEquals("lib/nested/with space.txt", entries.get(3).getPath());
+        for (ChecksumManifest.Entry entry : entries) {
+            Path file = root.resolve(entry.getPath());
+            byte[] content = Files.readAllBytes(file);
+            assertEquals(content.length, entry.getSize());
+            assertEquals(ChecksumUtils.getChecksumCRC32(content), entry.getCrc32());
+            assertEquals(FileHashing.hashHex(file, DigestAlgorithms.SHA_256), entry.getSha256());
+        }
+        assertEquals(4, manifest.stats().getFiles());
+        assertEquals(large.length + 5 + 1, manifest.stats().getBytes());
+    }
+
+    @Test
+    public void givenManifest_whenWrittenAndRead_thenEntriesRoundTrip() throws IOException {
+        Path root = folder.newFolder("tree").toPath();
+        Files.write(root.resolve("x y.txt"), "x".getBytes());
+        Files.write(root.resolve("z.txt"), "zz".getBytes());
+        ChecksumManifest manifest = ChecksumManifest.build(root);
+        Path file = folder.newFile("MANIFEST").toPath();
+
+        manifest.write(file);
+
+        assertEquals(manifest.entries(), ChecksumManifest.read(file));
+    }
+
+    @Test
+    public void givenPathsWithNewlineAndBackslash_whenWrittenAndRead_thenEachStaysOnOneLine() throws IOException {
+        List<ChecksumManifest.Entry> entries = List.of(
+                new ChecksumManifest.Entry("a\nb.txt", 1, 0x1234, "00"),
+                new ChecksumManifest.Entry("c\\n\r.txt", 2, 0x5678, "11"),
+                new ChecksumManifest.Entry("plain name.txt", 3, 0x9abc, "22"));
+        Path file = folder.newFile("ESCAPED").toPath();
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (ChecksumManifest.Entry entry : entries) {
+                writer.write(entry.toLine());
+                writer.newLine();
+            }
+        }
+
+        assertEquals(3, Files.readAllLines(file).size());
+        assertEquals(entries, ChecksumManifest.read(file));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenNonPositiveParallelism_whenManifestBuilt_thenRejected() throws IOException {
+        ChecksumManifest.build(folder.getRoot().toPath(), 0);
+    }
+
+    @Test
+    public void givenEntryFailingDuringWalk_whenVisited_thenSkippedAndWalkContinues() throws IOException {
+        Path root = folder.newFolder("walk").toPath();
+        ChecksumManifest.FileCollector collector = new ChecksumManifest.FileCollector(root);
+
+        FileVisitResult result = collector.visitFileFailed(root.resolve("gone/file.txt"),
+                new NoSuchFileException("gone/file.txt"));
+
+        assertEquals(FileVisitResult.CONTINUE, result);
+        assertEquals(List.of("gone/file.txt"), collector.skipped());
+    }
+
+    @Test
+    public void givenUnreadableDirectory_whenManifestBuilt_thenSkippedAndOthersListed() throws IOException {
+        Path root = folder.newFolder("partial").toPath();
+        Files.write(root.resolve("ok.txt"), "ok".getBytes());
+        Path locked = Files.createDirectory(root.resolve("locked"));
+        Files.write(locked.resolve("secret.txt"), "secret".getBytes());
+        try {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("---------"));
+        } catch (UnsupportedOperationException e) {
+            assumeTrue("文件系统不支持 POSIX 权限", false);
+        }
+        try {
+            // 以 root 运行时权限不起作用
+            assumeFalse("当前用户可以读取无权限目录", Files.isReadable(locked));
+
+            ChecksumManifest manifest = ChecksumManifest.build(root, 2);
+
+            assertEquals(1, manifest.entries().size());
+            assertEquals("ok.txt", manifest.entries().get(0).getPath());
+            assertEquals(List.of("locked"), manifest.stats().getSkipped());
+        } finally {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package org.example.check;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ChecksumUtilsUnitTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     byte[] arr;
 
     @Before
@@ -47,4 +65,189 @@ public class ChecksumUtilsUnitTest {
         assertEquals(3915397664L, checksum);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void givenKnownVectors_whenChecksumCreatedWithEachAlgorithm_checkCorrect() {
+
+        assertEquals(0xCBF43926L, ChecksumUtils.getChecksum(ChecksumAlgorithm.CRC32, "123456789".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0xE3069283L, ChecksumUtils.getChecksum(ChecksumAlgorithm.CRC32C, "123456789".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0x11E60398L, ChecksumUtils.getChecksum(ChecksumAlgorithm.ADLER32, "Wikipedia".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0x44BC2CF5AD770999L, ChecksumUtils.getChecksum(ChecksumAlgorithm.XXHASH64, "abc".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void givenSameData_whenChecksumCreatedFromEachSource_checkEqual() throws IOException {
+
+        byte[] data = new byte[3 * ChecksumUtils.CHANNEL_BUFFER_SIZE + 123];
+        new Random(42).nextBytes(data);
+        Path file = folder.newFile("data.bin").toPath();
+        Files.write(file, data);
+
+        for (ChecksumAlgorithm algorithm : ChecksumAlgorithm.values()) {
+            long expected = ChecksumUtils.getChecksum(algorithm, data);
+
+            ByteBuffer heap = ByteBuffer.wrap(data);
+            assertEquals(expected, ChecksumUtils.getChecksum(algorithm, heap), algorithm.name());
+            assertEquals(0, heap.position());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+            direct.put(data).flip();
+            assertEquals(expected, ChecksumUtils.getChecksum(algorithm, direct), algorithm.name());
+
+            assertEquals(expected, ChecksumUtils.getChecksum(algorithm, new ByteArrayInputStream(data), 8191), algorithm.name());
+
+            try (FileChannel channel = FileChannel.open(file)) {
+                assertEquals(expected, ChecksumUtils.getChecksum(algorithm, channel), algorithm.name());
+                assertEquals(0, channel.position());
+            }
+        }
+    }
+
+    @Test
+    public void givenFileOfManySegments_whenParallelChecksumCreated_checkEqualsSequential() throws IOException {
+
+        byte[] data = new byte[5 * 4096 + 77];
+        new Random(9).nextBytes(data);
+        Path file = folder.newFile("segments.bin").toPath();
+        Files.write(file, data);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            for (ChecksumAlgorithm algorithm : new ChecksumAlgorithm[]{ChecksumAlgorithm.CRC32, ChecksumAlgorithm.CRC32C}) {
+                long expected = ChecksumUtils.getChecksum(algorithm, data);
+                for (int segmentSize : new int[]{1000, 4096, data.length - 1, data.length, 1 << 20}) {
+                    assertEquals(expected, ChecksumUtils.getChecksumParallel(algorithm, channel, segmentSize, pool),
+                            algorithm + " segmentSize=" + segmentSize);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(ChecksumUtils.getChecksumCRC32(data), ChecksumUtils.getChecksumParallel(ChecksumAlgorithm.CRC32, file));
+    }
+
+    @Test
+    public void givenFileTruncatedAfterSizeTaken_whenChecksumCreated_checkThrowsEof() throws IOException {
+
+        byte[] data = new byte[3 * 4096];
+        new Random(11).nextBytes(data);
+        Path file = folder.newFile("shrinking.bin").toPath();
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            Files.write(file, data);
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try (FileChannel channel = new ShrinkingChannel(FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE), 4096 + 10)) {
+                assertThrows(EOFException.class, () -> {
+                    if (parallel) {
+                        ChecksumUtils.getChecksumParallel(ChecksumAlgorithm.CRC32, channel, 4096, pool);
+                    } else {
+                        ChecksumUtils.getChecksum(ChecksumAlgorithm.CRC32C, channel);
+                    }
+                });
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 报告原来的大小后立即把文件截断到 truncateTo，模拟在 size() 与读取之间被其他进程截断的文件。
+     */
+    private static final class ShrinkingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final long truncateTo;
+
+        ShrinkingChannel(FileChannel delegate, long truncateTo) {
+            this.delegate = delegate;
+            this.truncateTo = truncateTo;
+        }
+
+        @Override
+        public long size() throws IOException {
+            long size = delegate.size();
+            delegate.truncate(truncateTo);
+            return size;
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() {
+            return 0;
+        }
+
+        @Override
+        public FileChannel position(long newPosition) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileChannel truncate(long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void force(boolean metaData) {
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
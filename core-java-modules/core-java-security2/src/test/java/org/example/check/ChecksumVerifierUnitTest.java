@@ -0,0 +1,150 @@
+package org.example.check;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeNoException;
+
+public class ChecksumVerifierUnitTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void givenUntouchedTree_whenVerified_thenAllOkAndCountersUpdated() throws IOException {
+        Path root = tree(20);
+        List<ChecksumManifest.Entry> manifest = ChecksumManifest.build(root).entries();
+        ChecksumVerifier verifier = new ChecksumVerifier(4, false);
+        ChecksumVerifier.Progress progress = new ChecksumVerifier.Progress();
+
+        ChecksumVerifier.Report report = verifier.verify(root, manifest, progress);
+
+        assertTrue(report.toString(), report.isAllOk());
+        assertEquals(20, progress.getFilesVerified());
+        long bytes = manifest.stream().mapToLong(ChecksumManifest.Entry::getSize).sum();
+        assertEquals(bytes, progress.getBytesVerified());
+        assertEquals(bytes, report.getBytesVerified());
+        assertTrue(progress.getBytesPerSecond() > 0);
+    }
+
+    @Test
+    public void givenConcurrentVerifications_whenSharingVerifier_thenEachReportCountsOwnBytes() throws Exception {
+        Path root = tree(30);
+        List<ChecksumManifest.Entry> manifest = ChecksumManifest.build(root).entries();
+        List<ChecksumManifest.Entry> half = manifest.subList(0, 15);
+        ChecksumVerifier verifier = new ChecksumVerifier(2, false);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ChecksumVerifier.Report> all = executor.submit(() -> verifier.verify(root, manifest));
+            Future<ChecksumVerifier.Report> part = executor.submit(() -> verifier.verify(root, half));
+
+            assertEquals(manifest.stream().mapToLong(ChecksumManifest.Entry::getSize).sum(), all.get().getBytesVerified());
+            assertEquals(half.stream().mapToLong(ChecksumManifest.Entry::getSize).sum(), part.get().getBytesVerified());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void givenManifestPathOutsideRoot_whenVerified_thenRejected() throws IOException {
+        Path root = tree(1);
+        Files.write(folder.getRoot().toPath().resolve("secret.txt"), "secret".getBytes());
+
+        for (String path : new String[]{"../secret.txt", "sub/../../secret.txt", folder.getRoot() + "/secret.txt", "."}) {
+            List<ChecksumManifest.Entry> manifest = List.of(new ChecksumManifest.Entry(path, 6, 0, "00"));
+            try {
+                new ChecksumVerifier(1, false).verify(root, manifest);
+                fail("应当拒绝路径: " + path);
+            } catch (IllegalArgumentException expected) {
+                // 继续检查下一个路径
+            }
+        }
+    }
+
+    @Test
+    public void givenSymlinkInsideRootPointingOutside_whenVerified_thenNotRead() throws IOException {
+        Path root = tree(1);
+        Path secret = folder.getRoot().toPath().resolve("secret.txt");
+        Files.write(secret, "secret".getBytes());
+        try {
+            Files.createSymbolicLink(root.resolve("link.txt"), secret);
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeNoException("当前文件系统不支持符号链接", e);
+        }
+        List<ChecksumManifest.Entry> manifest = List.of(new ChecksumManifest.Entry("link.txt", 6, 0, "00"));
+        ChecksumVerifier.Progress progress = new ChecksumVerifier.Progress();
+
+        ChecksumVerifier.Report report = new ChecksumVerifier(1, false).verify(root, manifest, progress);
+
+        assertEquals(ChecksumVerifier.Status.UNREADABLE, report.getResults().get(0).getStatus());
+        assertEquals(0, progress.getBytesVerified());
+    }
+
+    @Test
+    public void givenDamagedTree_whenVerified_thenEachProblemReported() throws IOException {
+        Path root = tree(5);
+        List<ChecksumManifest.Entry> manifest = ChecksumManifest.build(root).entries();
+        Files.write(root.resolve("file-1.txt"), "content-X".getBytes());
+        Files.write(root.resolve("file-2.txt"), "longer content".getBytes());
+        Files.delete(root.resolve("file-3.txt"));
+
+        ChecksumVerifier.Report report = new ChecksumVerifier(2, false).verify(root, manifest);
+
+        Map<ChecksumVerifier.Status, Integer> counts = report.counts();
+        assertEquals(2, counts.get(ChecksumVerifier.Status.OK).intValue());
+        assertEquals(2, counts.get(ChecksumVerifier.Status.MISMATCH).intValue());
+        assertEquals(1, counts.get(ChecksumVerifier.Status.MISSING).intValue());
+        assertEquals(ChecksumVerifier.Status.MISMATCH, report.getResults().get(1).getStatus());
+        assertFalse(report.isAborted());
+    }
+
+    @Test
+    public void givenFailFast_whenFirstMismatchFound_thenRemainingFilesSkipped() throws IOException {
+        Path root = tree(50);
+        List<ChecksumManifest.Entry> manifest = new ArrayList<>(ChecksumManifest.build(root).entries());
+        ChecksumManifest.Entry first = manifest.get(0);
+        manifest.set(0, new ChecksumManifest.Entry(first.getPath(), first.getSize(), first.getCrc32() ^ 1, first.getSha256()));
+
+        ChecksumVerifier.Report report = new ChecksumVerifier(1, true).verify(root, manifest);
+
+        assertTrue(report.isAborted());
+        assertFalse(report.isAllOk());
+        assertTrue(report.toString(), report.getResults().size() < manifest.size());
+    }
+
+    @Test
+    public void givenFailFast_whenFirstFileMissing_thenRemainingFilesSkipped() throws IOException {
+        Path root = tree(50);
+        List<ChecksumManifest.Entry> manifest = ChecksumManifest.build(root).entries();
+        Files.delete(root.resolve(manifest.get(0).getPath()));
+
+        ChecksumVerifier.Report report = new ChecksumVerifier(1, true).verify(root, manifest);
+
+        assertTrue(report.isAborted());
+        assertEquals(ChecksumVerifier.Status.MISSING, report.getResults().get(0).getStatus());
+        assertTrue(report.toString(), report.getResults().size() < manifest.size());
+    }
+
+    private Path tree(int files) throws IOException {
+        Path root = folder.newFolder("tree").toPath();
+        for (int i = 0; i < files; i++) {
+            Files.write(root.resolve("file-" + i + ".txt"), ("content-" + i).getBytes());
+        }
+        return root;
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.check;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.zip.Checksum;
+
+import static org.junit.Assert.assertEquals;
+
+public class Crc32CombineUnitTest {
+
+    @Test
+    public void givenTwoParts_whenCombined_thenEqualsChecksumOfWhole() {
+        byte[] data = new byte[5000];
+        new Random(3).nextBytes(data);
+        int[] splits = {0, 1, 7, 64, 1023, 2500, 4999, 5000};
+
+        for (ChecksumAlgorithm algorithm : new ChecksumAlgorithm[]{ChecksumAlgorithm.CRC32, ChecksumAlgorithm.CRC32C}) {
+            long whole = ChecksumUtils.getChecksum(algorithm, data);
+            for (int split : splits) {
+                long first = checksum(algorithm, data, 0, split);
+                long second = checksum(algorithm, data, split, data.length - split);
+                assertEquals(algorithm + " split=" + split, whole,
+                        Crc32Combine.combine(algorithm, first, second, data.length - split));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenAdler32_whenCombined_thenRejected() {
+        Crc32Combine.combine(ChecksumAlgorithm.ADLER32, 1, 1, 1);
+    }
+
+    private static long checksum(ChecksumAlgorithm algorithm, byte[] data, int off, int len) {
+        Checksum checksum = algorithm.newChecksum();
+        checksum.update(data, off, len);
+        return checksum.getValue();
+    }
+}
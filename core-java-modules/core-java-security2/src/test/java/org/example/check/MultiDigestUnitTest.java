@@ -0,0 +1,106 @@
+package org.example.check;
+
+import org.example.hash.DigestAlgorithms;
+import org.example.hash.DigestPool;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class MultiDigestUnitTest {
+
+    private static final List<String> DIGESTS = Arrays.asList(DigestAlgorithms.MD5, DigestAlgorithms.SHA_256);
+
+    private static final List<ChecksumAlgorithm> CHECKSUMS = Arrays.asList(ChecksumAlgorithm.CRC32, ChecksumAlgorithm.CRC32C);
+
+    @Test
+    public void givenStream_whenDigestedSequentiallyOrOverlapped_thenMatchesIndividualDigests()
+            throws IOException, NoSuchAlgorithmException {
+        byte[] data = new byte[100_000];
+        new Random(8).nextBytes(data);
+        MultiDigest multiDigest = new MultiDigest(DIGESTS, CHECKSUMS);
+
+        for (boolean overlapped : new boolean[]{false, true}) {
+            MultiDigest.Result result = multiDigest.digest(new ByteArrayInputStream(data), 4096, overlapped);
+
+            assertEquals(data.length, result.getBytes());
+            assertArrayEquals(DigestPool.digest(DigestAlgorithms.MD5, data), result.digest(DigestAlgorithms.MD5));
+            assertArrayEquals(DigestPool.digest(DigestAlgorithms.SHA_256, data), result.digest(DigestAlgorithms.SHA_256));
+            assertEquals(ChecksumUtils.getChecksumCRC32(data), result.checksum(ChecksumAlgorithm.CRC32));
+            assertEquals(ChecksumUtils.getChecksum(ChecksumAlgorithm.CRC32C, data), result.checksum(ChecksumAlgorithm.CRC32C));
+        }
+    }
+
+    @Test
+    public void givenWritesAndBuffers_whenResultTaken_thenEqualsOneShotAndResets() throws NoSuchAlgorithmException {
+        byte[] data = "The quick brown fox jumps over the lazy dog".getBytes();
+        MultiDigest multiDigest = new MultiDigest(DIGESTS, CHECKSUMS);
+
+        multiDigest.write(data[0]);
+        multiDigest.write(data, 1, 10);
+        multiDigest.update(ByteBuffer.wrap(data, 11, data.length - 11));
+        MultiDigest.Result result = multiDigest.result();
+
+        assertEquals("9e107d9d372bb6826bd81d3542a419d6", result.hex(DigestAlgorithms.MD5));
+        assertEquals(ChecksumUtils.getChecksumCRC32(data), result.checksum(ChecksumAlgorithm.CRC32));
+        assertEquals(0, multiDigest.result().getBytes());
+    }
+
+    @Test(expected = IOException.class)
+    public void givenFailingStream_whenDigestedOverlapped_thenExceptionPropagated() throws Exception {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("磁盘错误");
+            }
+        };
+
+        new MultiDigest(DIGESTS, CHECKSUMS).digest(failing, 1024, true);
+    }
+
+    @Test
+    public void givenStreamFailingMidway_whenDigested_thenStateResetAndReaderStopped() throws Exception {
+        byte[] data = new byte[10_000];
+        new Random(3).nextBytes(data);
+        MultiDigest multiDigest = new MultiDigest(DIGESTS, CHECKSUMS);
+
+        for (boolean overlapped : new boolean[]{false, true}) {
+            InputStream failing = new SequenceInputStream(new ByteArrayInputStream(new byte[5000]), new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("磁盘错误");
+                }
+            });
+            try {
+                multiDigest.digest(failing, 1024, overlapped);
+                fail("应当抛出 IOException");
+            } catch (IOException expected) {
+                // 继续校验实例状态
+            }
+
+            MultiDigest.Result result = multiDigest.digest(new ByteArrayInputStream(data), 1024, overlapped);
+
+            assertEquals(data.length, result.getBytes());
+            assertArrayEquals(DigestPool.digest(DigestAlgorithms.SHA_256, data), result.digest(DigestAlgorithms.SHA_256));
+            assertEquals(ChecksumUtils.getChecksumCRC32(data), result.checksum(ChecksumAlgorithm.CRC32));
+        }
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("multi-digest-reader".equals(thread.getName())) {
+                thread.join(5000);
+                assertFalse(thread.isAlive());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.check;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class XxHash64UnitTest {
+
+    private static long xxHash64(String input, long seed) {
+        XxHash64 hash = new XxHash64(seed);
+        byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+        hash.update(bytes, 0, bytes.length);
+        return hash.getValue();
+    }
+
+    @Test
+    public void givenReferenceVectors_whenHashed_thenMatchesReferenceImplementation() {
+        assertEquals(0xEF46DB3751D8E999L, xxHash64("", 0));
+        assertEquals(0xD24EC4F1A98C6E5BL, xxHash64("a", 0));
+        assertEquals(0x44BC2CF5AD770999L, xxHash64("abc", 0));
+        assertEquals(0xFBCEA83C8A378BF1L, xxHash64("Nobody inspects the spammish repetition", 0));
+        assertEquals(0xB559B98D844E0635L, xxHash64("xxhash", 20141025));
+    }
+
+    @Test
+    public void givenInputSplitAtEveryOffset_whenHashedIncrementally_thenMatchesOneShot() {
+        byte[] data = new byte[200];
+        new Random(7).nextBytes(data);
+        XxHash64 oneShot = new XxHash64();
+        oneShot.update(data, 0, data.length);
+        long expected = oneShot.getValue();
+
+        XxHash64 hash = new XxHash64();
+        for (int split = 0; split <= data.length; split++) {
+            hash.reset();
+            hash.update(data, 0, split);
+            hash.update(data, split, data.length - split);
+            assertEquals("split=" + split, expected, hash.getValue());
+        }
+
+        hash.reset();
+        for (byte b : data) {
+            hash.update(b);
+        }
+        assertEquals(expected, hash.getValue());
+    }
+
+    @Test
+    public void givenDirectAndBigEndianBuffers_whenHashed_thenMatchesByteArray() {
+        byte[] data = new byte[1000];
+        new Random(11).nextBytes(data);
+        XxHash64 hash = new XxHash64();
+        hash.update(data, 0, data.length);
+        long expected = hash.getValue();
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length + 3).order(ByteOrder.BIG_ENDIAN);
+        direct.position(3);
+        direct.put(data);
+        direct.position(3);
+        hash.reset();
+        hash.update(direct);
+        assertEquals(expected, hash.getValue());
+        assertEquals(direct.limit(), direct.position());
+        assertEquals(ByteOrder.BIG_ENDIAN, direct.order());
+    }
+}
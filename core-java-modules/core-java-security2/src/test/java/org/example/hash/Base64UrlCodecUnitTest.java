@@ -0,0 +1,62 @@
+package org.example.hash;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class Base64UrlCodecUnitTest {
+
+    private final Random random = new Random(42);
+
+    private final Base64.Encoder jdkEncoder = Base64.getUrlEncoder().withoutPadding();
+
+    @Test
+    public void givenRandomBytes_whenEncoded_thenMatchesJdkEncoder() {
+        for (int length = 0; length < 100; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+
+            String expected = jdkEncoder.encodeToString(bytes);
+            assertEquals(expected.length(), Base64UrlCodec.encodedLength(length));
+            assertEquals(expected, Base64UrlCodec.encodeToString(bytes));
+        }
+    }
+
+    @Test
+    public void givenCallerBuffers_whenEncoded_thenWrittenAtOffset() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String expected = jdkEncoder.encodeToString(bytes);
+
+        char[] chars = new char[expected.length() + 1];
+        assertEquals(expected.length(), Base64UrlCodec.encode(bytes, 0, bytes.length, chars, 1));
+        assertEquals(expected, new String(chars, 1, expected.length()));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(expected.length());
+        Base64UrlCodec.encode(bytes, 0, bytes.length, direct);
+        direct.flip();
+        assertEquals(expected, StandardCharsets.US_ASCII.decode(direct).toString());
+    }
+
+    @Test
+    public void givenInputsAcrossScratchChunks_whenEncodedToDirectBuffer_thenMatchesJdk() {
+        for (int length : new int[]{0, 1, 3071, 3072, 3073, 10_000}) {
+            byte[] bytes = new byte[length + 5];
+            random.nextBytes(bytes);
+            String expected = jdkEncoder.encodeToString(Arrays.copyOfRange(bytes, 5, length + 5));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(expected.length() + 2);
+            direct.position(2);
+            assertEquals(expected.length(), Base64UrlCodec.encode(bytes, 5, length, direct));
+            direct.flip().position(2);
+            assertEquals("length=" + length, expected, StandardCharsets.US_ASCII.decode(direct).toString());
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.example.hash;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.example.hash.DigestAlgorithms.SHA3_256;
+import static org.example.hash.DigestAlgorithms.SHA_256;
+import static org.junit.Assert.*;
+
+public class BatchHashingUnitTest {
+
+    @Test
+    public void givenMixedStrings_whenBatchHashed_thenEachDigestMatchesStringApi() throws Exception {
+        List<String> inputs = Arrays.asList("abc123", "", "user@example.com", "héllo wörld", "密码", "😀", "bad\uD800surrogate");
+
+        DigestBatch batch = BatchHashing.hashAll(inputs, SHA_256);
+
+        assertEquals(inputs.size(), batch.size());
+        assertEquals(32, batch.digestLength());
+        for (int i = 0; i < inputs.size(); i++) {
+            assertEquals(SHA256Hashing.HashWithJavaMessageDigest(inputs.get(i)), batch.hex(i));
+        }
+    }
+
+    @Test
+    public void givenIterableWithoutSize_whenBatchHashed_thenResultGrows() throws Exception {
+        List<String> inputs = ids(100);
+
+        Iterable<String> iterable = inputs::iterator;
+
+        DigestBatch batch = BatchHashing.hashAll(iterable, SHA3_256);
+
+        assertEquals(100, batch.size());
+        assertEquals(SHA3Hashing.hashWithJavaMessageDigest(inputs.get(99)), batch.hex(99));
+    }
+
+    @Test
+    public void givenLargeBatch_whenHashedInParallel_thenMatchesSequential() throws Exception {
+        List<String> inputs = ids(20_000);
+
+        DigestBatch sequential = BatchHashing.hashAll(inputs, SHA_256, false);
+        DigestBatch parallel = BatchHashing.hashAll(inputs, SHA_256, true);
+
+        assertArrayEquals(sequential.digests(), parallel.digests());
+    }
+
+    @Test
+    public void givenBatch_whenConvertedToLongs_thenBigEndianDigestWords() throws Exception {
+        DigestBatch batch = BatchHashing.hashAll(Arrays.asList("a", "b"), SHA_256);
+
+        long[] longs = batch.toLongArray();
+
+        assertEquals(8, longs.length);
+        byte[] second = MessageDigest.getInstance(SHA_256).digest("b".getBytes(StandardCharsets.UTF_8));
+        assertEquals(ByteBuffer.wrap(second).getLong(), longs[4]);
+        assertArrayEquals(second, batch.get(1));
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("tenant-" + i + (i % 7 == 0 ? "-ü" : ""));
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.example.hash;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.example.hash.DigestAlgorithms.KECCAK_256;
+import static org.example.hash.DigestAlgorithms.SHA_256;
+import static org.junit.Assert.*;
+
+public class DigestCacheUnitTest {
+
+    private DigestCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new DigestCache(SHA_256, 1 << 20, 64);
+    }
+
+    @Test
+    public void givenRepeatedInput_whenDigested_thenSecondCallIsHit() throws Exception {
+        assertEquals(SHA256Hashing.HashWithJavaMessageDigest("abc123"), cache.hashHex("abc123"));
+        assertEquals(SHA256Hashing.HashWithJavaMessageDigest("abc123"), cache.hashHex("abc123"));
+
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void givenCallerMutatesInputOrResult_whenDigestedAgain_thenCacheIsUnaffected() throws Exception {
+        byte[] input = "tenant-1".getBytes(StandardCharsets.UTF_8);
+        byte[] first = cache.digest(input);
+        byte[] expected = first.clone();
+        first[0] ^= 1;
+        input[0] = 'X';
+
+        assertArrayEquals(expected, cache.digest("tenant-1".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void givenInputLongerThanLimit_whenDigested_thenCacheIsBypassed() throws Exception {
+        String longInput = new String(new char[65]).replace('\0', 'a');
+
+        assertEquals(SHA256Hashing.HashWithJavaMessageDigest(longInput), cache.hashHex(longInput));
+
+        assertEquals(1, cache.bypassCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void givenWeightLimit_whenManyInputsDigested_thenEntriesAreEvicted() throws Exception {
+        DigestCache small = new DigestCache(KECCAK_256, 10 * (DigestCache.ENTRY_OVERHEAD + 32 + "tenant-99".length()), 64);
+
+        for (int i = 0; i < 100; i++) {
+            small.hashHex("tenant-" + i);
+        }
+
+        assertTrue(small.size() <= 10);
+        assertTrue(small.stats().evictionCount() >= 90);
+        assertEquals(Keccak256Hashing.hashWithBouncyCastle("tenant-99"), small.hashHex("tenant-99"));
+    }
+
+}
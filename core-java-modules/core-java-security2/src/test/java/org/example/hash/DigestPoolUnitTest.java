@@ -0,0 +1,60 @@
+package org.example.hash;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.example.hash.DigestAlgorithms.KECCAK_256;
+import static org.example.hash.DigestAlgorithms.SHA_256;
+import static org.junit.Assert.*;
+
+public class DigestPoolUnitTest {
+
+    private static final byte[] INPUT = "abc123".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void givenSameThread_whenThreadLocalRequested_thenSameResetInstanceReturned() throws Exception {
+        MessageDigest first = DigestPool.threadLocal(SHA_256);
+        first.update(INPUT);
+
+        MessageDigest second = DigestPool.threadLocal(SHA_256);
+
+        assertSame(first, second);
+        assertArrayEquals(MessageDigest.getInstance(SHA_256).digest(INPUT), second.digest(INPUT));
+    }
+
+    @Test
+    public void givenLeaseClosed_whenBorrowedAgain_thenResetInstanceIsReused() throws Exception {
+        MessageDigest leased;
+        try (DigestPool.Lease lease = DigestPool.borrow(SHA_256)) {
+            leased = lease.digest();
+            leased.update(INPUT);
+        }
+
+        try (DigestPool.Lease lease = DigestPool.borrow(SHA_256)) {
+            assertSame(leased, lease.digest());
+            assertArrayEquals(MessageDigest.getInstance(SHA_256).digest(INPUT), lease.digest().digest(INPUT));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenLeaseClosed_whenDigestAccessed_thenFails() throws Exception {
+        DigestPool.Lease lease = DigestPool.borrow(SHA_256);
+        lease.close();
+        lease.digest();
+    }
+
+    @Test
+    public void givenKeccak_whenDigested_thenBouncyCastleIsUsed() throws Exception {
+        assertEquals("719accc61a9cc126830e5906f9d672d06eab6f8597287095a2c55a8b775e7016",
+                SHACommonUtils.bytesToHex(DigestPool.digest(KECCAK_256, INPUT)));
+    }
+
+    @Test(expected = NoSuchAlgorithmException.class)
+    public void givenUnknownAlgorithm_whenDigested_thenFails() throws Exception {
+        DigestPool.digest("NO-SUCH-DIGEST", INPUT);
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.example.hash;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.Test;
+
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.Security;
+import java.util.Arrays;
+
+import static org.example.hash.DigestAlgorithms.*;
+import static org.junit.Assert.*;
+
+public class DigestProvidersUnitTest {
+
+    @Test
+    public void givenRepeatedCalls_whenBouncyCastleRequested_thenRegisteredOnlyOnce() {
+        Provider first = DigestProviders.bouncyCastle();
+        Provider second = DigestProviders.bouncyCastle();
+
+        assertSame(first, second);
+        assertSame(first, Security.getProvider(BouncyCastleProvider.PROVIDER_NAME));
+        assertEquals(1, Arrays.stream(Security.getProviders())
+                .filter(provider -> BouncyCastleProvider.PROVIDER_NAME.equals(provider.getName()))
+                .count());
+    }
+
+    @Test
+    public void givenCalibration_whenSelectionsListed_thenEveryAlgorithmIsBound() throws Exception {
+        DigestProviders.calibrate();
+
+        for (String algorithm : DigestAlgorithms.ALL) {
+            Provider provider = DigestProviders.providerFor(algorithm);
+            assertNotNull(provider.getService("MessageDigest", algorithm));
+            assertEquals(provider.getName(), DigestProviders.selections().get(algorithm));
+            assertSame(provider, DigestProviders.providerFor(algorithm));
+        }
+    }
+
+    @Test
+    public void givenNoCalibration_whenDefaultRequested_thenMatchesGetInstance() throws Exception {
+        for (String algorithm : Arrays.asList(MD5, SHA_256, SHA_512, SHA3_256)) {
+            assertSame(MessageDigest.getInstance(algorithm).getProvider(), DigestProviders.defaultProvider(algorithm));
+        }
+    }
+
+    @Test
+    public void givenKeccak_whenSelected_thenOnlyBouncyCastleQualifies() throws Exception {
+        assertEquals(BouncyCastleProvider.PROVIDER_NAME, DigestProviders.providerFor(KECCAK_256).getName());
+    }
+
+    @Test
+    public void givenSelectedProvider_whenDigesting_thenResultMatchesDefaultProvider() throws Exception {
+        byte[] input = "abc123".getBytes();
+
+        assertArrayEquals(MessageDigest.getInstance(SHA_256).digest(input), DigestProviders.newDigest(SHA_256).digest(input));
+        assertArrayEquals(MessageDigest.getInstance(SHA3_256).digest(input), DigestProviders.newDigest(SHA3_256).digest(input));
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.example.hash;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.example.hash.DigestAlgorithms.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FileHashingUnitTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private byte[] content;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        content = new byte[100_000];
+        new Random(42).nextBytes(content);
+        file = folder.newFile("content.bin").toPath();
+        Files.write(file, content);
+    }
+
+    @Test
+    public void givenFile_whenHashed_thenMatchesInMemoryDigestForEveryAlgorithm() throws Exception {
+        for (String algorithm : new String[]{MD5, SHA_256, SHA_512, SHA3_256, KECCAK_256}) {
+            assertArrayEquals(algorithm, DigestPool.digest(algorithm, content), FileHashing.hash(file, algorithm));
+        }
+    }
+
+    @Test
+    public void givenStringContent_whenHashed_thenMatchesStringApi() throws Exception {
+        Path text = folder.newFile("text.txt").toPath();
+        Files.write(text, "abc123".getBytes());
+
+        assertEquals(SHA256Hashing.HashWithJavaMessageDigest("abc123"), FileHashing.hashHex(text, SHA_256));
+        assertEquals(Keccak256Hashing.hashWithBouncyCastle("abc123"), FileHashing.hashHex(text, KECCAK_256));
+    }
+
+    @Test
+    public void givenSmallWindow_whenMapped_thenMatchesInMemoryDigest() throws Exception {
+        assertArrayEquals(DigestPool.digest(SHA_256, content), hashRange(0, content.length, 4096, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void givenFileAboveThreshold_whenHashed_thenPositionalReadMatches() throws Exception {
+        assertArrayEquals(DigestPool.digest(SHA_256, content), hashRange(0, content.length, 4096, 0));
+    }
+
+    @Test
+    public void givenRange_whenHashed_thenOnlyRangeIsDigested() throws Exception {
+        MessageDigest expected = MessageDigest.getInstance(SHA_256);
+        expected.update(content, 1000, 5000);
+
+        assertArrayEquals(expected.digest(), hashRange(1000, 5000, 4096, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void givenEmptyFile_whenHashed_thenDigestOfNothing() throws Exception {
+        Path empty = folder.newFile("empty.bin").toPath();
+
+        assertArrayEquals(MessageDigest.getInstance(SHA3_256).digest(), FileHashing.hash(empty, SHA3_256));
+    }
+
+    private byte[] hashRange(long position, long length, long window, long mapThreshold) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance(SHA_256);
+        try (FileChannel channel = FileChannel.open(file)) {
+            FileHashing.update(digest, channel, position, length, window, mapThreshold);
+        }
+        return digest.digest();
+    }
+
+}
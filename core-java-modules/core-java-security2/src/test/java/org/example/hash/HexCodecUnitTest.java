@@ -0,0 +1,76 @@
+package org.example.hash;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HexCodecUnitTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void givenAllByteValues_whenEncoded_thenMatchesBouncyCastle() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+
+        assertEquals(Hex.toHexString(bytes), HexCodec.encodeToString(bytes));
+    }
+
+    @Test
+    public void givenCallerBuffers_whenEncoded_thenWrittenAtOffset() {
+        byte[] bytes = {(byte) 0xca, (byte) 0xfe, 0x01};
+
+        char[] chars = new char[8];
+        assertEquals(4, HexCodec.encode(bytes, 1, 2, chars, 2));
+        assertEquals("fe01", new String(chars, 2, 4));
+
+        byte[] ascii = new byte[6];
+        assertEquals(6, HexCodec.encode(bytes, 0, 3, ascii, 0));
+        assertEquals("cafe01", new String(ascii, StandardCharsets.US_ASCII));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(6);
+        assertEquals(6, HexCodec.encode(bytes, 0, 3, direct));
+        direct.flip();
+        assertEquals("cafe01", StandardCharsets.US_ASCII.decode(direct).toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void givenTooSmallBuffer_whenEncoded_thenFails() {
+        HexCodec.encode(new byte[4], 0, 4, new char[7], 0);
+    }
+
+    @Test
+    public void givenRandomBytes_whenEncodedAndDecoded_thenRoundTrips() {
+        for (int length = 0; length < 100; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+
+            assertArrayEquals(bytes, HexCodec.decode(HexCodec.encodeToString(bytes)));
+            assertArrayEquals(bytes, HexCodec.decode(HexCodec.encodeToString(bytes).toUpperCase()));
+        }
+    }
+
+    @Test
+    public void givenInvalidCharacters_whenDecoded_thenFails() {
+        for (String hex : new String[]{"0g", "g0", "/0", ":0", "@0", "G0", "`0", "0İ", "İİ"}) {
+            try {
+                HexCodec.decode(hex);
+                fail("expected failure for " + hex);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenOddLength_whenDecoded_thenFails() {
+        HexCodec.decode("abc");
+    }
+
+}
@@ -2,6 +2,9 @@ package org.example.hash;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.Assert.assertEquals;
 
 public class Keccak256HashingUnitTest {
@@ -14,6 +17,40 @@ public class Keccak256HashingUnitTest {
         assertEquals(hashedValue, currentHashedValue);
     }
 
+    @Test
+    public void testHashWithJavaMessageDigestByteArraySlice() throws Exception {
+        final byte[] padded = ("xx" + originalValue + "yy").getBytes(StandardCharsets.UTF_8);
+        final String currentHashedValue = Keccak256Hashing.hashWithJavaMessageDigest(padded, 2, originalValue.length());
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestHeapByteBuffer() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(originalValue.getBytes(StandardCharsets.UTF_8));
+        final String currentHashedValue = Keccak256Hashing.hashWithJavaMessageDigest(buffer);
+        assertEquals(hashedValue, currentHashedValue);
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestDirectByteBuffer() throws Exception {
+        final byte[] bytes = originalValue.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        final String currentHashedValue = Keccak256Hashing.hashWithJavaMessageDigest(buffer.asReadOnlyBuffer());
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestScatteredBuffers() throws Exception {
+        final byte[] bytes = originalValue.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer head = ByteBuffer.wrap(bytes, 0, 2);
+        final ByteBuffer tail = ByteBuffer.allocateDirect(bytes.length - 2);
+        tail.put(bytes, 2, bytes.length - 2).flip();
+        final String currentHashedValue = Keccak256Hashing.hashWithJavaMessageDigest(head, tail);
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
     @Test public void testHashWithBouncyCastle() {
         final String currentHashedValue = Keccak256Hashing.hashWithBouncyCastle(originalValue);
         assertEquals(hashedValue, currentHashedValue);
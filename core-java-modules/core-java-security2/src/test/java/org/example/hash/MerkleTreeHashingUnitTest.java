@@ -0,0 +1,144 @@
+package org.example.hash;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.example.hash.DigestAlgorithms.SHA3_256;
+import static org.example.hash.DigestAlgorithms.SHA_256;
+import static org.junit.Assert.*;
+
+public class MerkleTreeHashingUnitTest {
+
+    private static final int CHUNK = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ForkJoinPool pool;
+
+    private byte[] content;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = new ForkJoinPool(4);
+        content = new byte[5 * CHUNK + 100];
+        new Random(42).nextBytes(content);
+        file = folder.newFile("content.bin").toPath();
+        Files.write(file, content);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void givenFile_whenTreeHashed_thenRootMatchesSequentialComputation() throws Exception {
+        MerkleTree tree = MerkleTreeHashing.hash(file, SHA_256, CHUNK, pool);
+
+        assertEquals(6, tree.chunkCount());
+        assertArrayEquals(expectedRoot(SHA_256, content, CHUNK), tree.root());
+    }
+
+    @Test
+    public void givenSameFile_whenHashedWithSha3_thenRootDiffersFromSha256() throws Exception {
+        MerkleTree sha3 = MerkleTreeHashing.hash(file, SHA3_256, CHUNK, pool);
+
+        assertArrayEquals(expectedRoot(SHA3_256, content, CHUNK), sha3.root());
+        assertNotEquals(MerkleTreeHashing.hash(file, SHA_256, CHUNK, pool).rootHex(), sha3.rootHex());
+    }
+
+    @Test
+    public void givenModifiedChunk_whenRehashed_thenOnlyThatLeafChangesAndRootMatchesFullHash() throws Exception {
+        MerkleTree before = MerkleTreeHashing.hash(file, SHA_256, CHUNK, pool);
+        overwrite(3 * CHUNK + 10, new byte[]{1, 2, 3});
+
+        MerkleTree after = MerkleTreeHashing.rehash(file, before, 3 * CHUNK + 10, 3);
+
+        MerkleTree full = MerkleTreeHashing.hash(file, SHA_256, CHUNK, pool);
+        assertArrayEquals(full.root(), after.root());
+        BitSet expected = new BitSet();
+        expected.set(3);
+        assertEquals(expected, before.changedChunks(after));
+    }
+
+    @Test
+    public void givenUnreportedChange_whenRehashed_thenOldLeafIsKept() throws Exception {
+        MerkleTree before = MerkleTreeHashing.hash(file, SHA_256, CHUNK, pool);
+        overwrite(0, new byte[]{9});
+
+        MerkleTree after = MerkleTreeHashing.rehash(file, before, new BitSet(), pool);
+
+        assertArrayEquals(before.root(), after.root());
+    }
+
+    @Test
+    public void givenAppendedData_whenRehashed_thenMatchesFullHash() throws Exception {
+        MerkleTree before = MerkleTreeHashing.hash(file, SHA_256, CHUNK, pool);
+        byte[] extra = new byte[2 * CHUNK];
+        new Random(7).nextBytes(extra);
+        overwrite(content.length, extra);
+
+        MerkleTree after = MerkleTreeHashing.rehash(file, before, new BitSet(), pool);
+
+        assertEquals(8, after.chunkCount());
+        assertArrayEquals(MerkleTreeHashing.hash(file, SHA_256, CHUNK, pool).root(), after.root());
+    }
+
+    @Test
+    public void givenEmptyFile_whenTreeHashed_thenSingleEmptyLeaf() throws Exception {
+        Path empty = folder.newFile("empty.bin").toPath();
+
+        MerkleTree tree = MerkleTreeHashing.hash(empty, SHA_256, CHUNK, pool);
+
+        assertEquals(1, tree.chunkCount());
+        assertArrayEquals(MessageDigest.getInstance(SHA_256).digest(new byte[]{0}), tree.root());
+    }
+
+    private void overwrite(long position, byte[] bytes) throws Exception {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(position);
+            raf.write(bytes);
+        }
+    }
+
+    private static byte[] expectedRoot(String algorithm, byte[] data, int chunk) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+        byte[][] level = new byte[(data.length + chunk - 1) / chunk][];
+        for (int i = 0; i < level.length; i++) {
+            digest.update((byte) 0);
+            digest.update(Arrays.copyOfRange(data, i * chunk, Math.min(data.length, (i + 1) * chunk)));
+            level[i] = digest.digest();
+        }
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                if (2 * i + 1 == level.length) {
+                    parent[i] = level[2 * i];
+                } else {
+                    digest.update((byte) 1);
+                    digest.update(level[2 * i]);
+                    digest.update(level[2 * i + 1]);
+                    parent[i] = digest.digest();
+                }
+            }
+            level = parent;
+        }
+        return level[0];
+    }
+
+}
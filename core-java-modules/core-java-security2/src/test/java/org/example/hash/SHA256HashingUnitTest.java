@@ -2,6 +2,9 @@ package org.example.hash;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.Assert.assertEquals;
 
 public class SHA256HashingUnitTest {
@@ -15,6 +18,40 @@ public class SHA256HashingUnitTest {
         assertEquals(hashedValue, currentHashedValue);
     }
 
+    @Test
+    public void testHashWithJavaMessageDigestByteArraySlice() throws Exception {
+        final byte[] padded = ("xx" + originalValue + "yy").getBytes(StandardCharsets.UTF_8);
+        final String currentHashedValue = SHA256Hashing.HashWithJavaMessageDigest(padded, 2, originalValue.length());
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestHeapByteBuffer() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(originalValue.getBytes(StandardCharsets.UTF_8));
+        final String currentHashedValue = SHA256Hashing.HashWithJavaMessageDigest(buffer);
+        assertEquals(hashedValue, currentHashedValue);
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestDirectByteBuffer() throws Exception {
+        final byte[] bytes = originalValue.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        final String currentHashedValue = SHA256Hashing.HashWithJavaMessageDigest(buffer.asReadOnlyBuffer());
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestScatteredBuffers() throws Exception {
+        final byte[] bytes = originalValue.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer head = ByteBuffer.wrap(bytes, 0, 2);
+        final ByteBuffer tail = ByteBuffer.allocateDirect(bytes.length - 2);
+        tail.put(bytes, 2, bytes.length - 2).flip();
+        final String currentHashedValue = SHA256Hashing.HashWithJavaMessageDigest(head, tail);
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
     @Test
     public void testHashWithGuava() throws Exception {
         final String currentHashedValue = SHA256Hashing.hashWithGuava(originalValue);
@@ -2,6 +2,9 @@ package org.example.hash;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.Assert.assertEquals;
 
 public class SHA3HashingUnitTest {
@@ -22,6 +25,40 @@ public class SHA3HashingUnitTest {
         assertEquals(hashedValue, currentHashedValue);
     }
 
+    @Test
+    public void testHashWithJavaMessageDigestByteArraySlice() throws Exception {
+        final byte[] padded = ("xx" + originalValue + "yy").getBytes(StandardCharsets.UTF_8);
+        final String currentHashedValue = SHA3Hashing.hashWithJavaMessageDigest(padded, 2, originalValue.length());
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestHeapByteBuffer() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.wrap(originalValue.getBytes(StandardCharsets.UTF_8));
+        final String currentHashedValue = SHA3Hashing.hashWithJavaMessageDigest(buffer);
+        assertEquals(hashedValue, currentHashedValue);
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestDirectByteBuffer() throws Exception {
+        final byte[] bytes = originalValue.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        final String currentHashedValue = SHA3Hashing.hashWithJavaMessageDigest(buffer.asReadOnlyBuffer());
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
+    @Test
+    public void testHashWithJavaMessageDigestScatteredBuffers() throws Exception {
+        final byte[] bytes = originalValue.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer head = ByteBuffer.wrap(bytes, 0, 2);
+        final ByteBuffer tail = ByteBuffer.allocateDirect(bytes.length - 2);
+        tail.put(bytes, 2, bytes.length - 2).flip();
+        final String currentHashedValue = SHA3Hashing.hashWithJavaMessageDigest(head, tail);
+        assertEquals(hashedValue, currentHashedValue);
+    }
+
     /* works with JDK9+ only */
     //@Test
     public void testHashWithApacheCommonsJDK9() {
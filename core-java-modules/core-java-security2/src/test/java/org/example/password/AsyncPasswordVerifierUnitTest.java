@@ -0,0 +1,91 @@
+package org.example.password;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncPasswordVerifierUnitTest {
+
+  @Test
+  public void givenCorrectAndWrongPasswords_whenCheckedAsync_thenResultsMatchSyncCheck() throws Exception {
+    PBKDF2Hasher hasher = new PBKDF2Hasher(4);
+    String token = hasher.hash("password123".toCharArray());
+
+    try (AsyncPasswordVerifier verifier = new AsyncPasswordVerifier(hasher, 2, 8)) {
+      assertTrue(verifier.checkPassword("password123".toCharArray(), token).get(5, TimeUnit.SECONDS));
+      assertFalse(verifier.checkPassword("IamWrong".toCharArray(), token).get(5, TimeUnit.SECONDS));
+
+      AsyncPasswordVerifier.Metrics metrics = verifier.metrics();
+      assertEquals(2, metrics.getSubmitted());
+      assertEquals(2, metrics.getCompleted());
+      assertTrue(metrics.getComputeNanos() > 0);
+    }
+  }
+
+  @Test
+  public void givenSaturatedExecutor_whenChecked_thenRejectedImmediately() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    try (AsyncPasswordVerifier verifier = new AsyncPasswordVerifier((password, token) -> {
+      started.countDown();
+      try {
+        return release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }, 1, 1)) {
+      CompletableFuture<Boolean> running = verifier.checkPassword(new char[0], "");
+      started.await(5, TimeUnit.SECONDS);
+      CompletableFuture<Boolean> queued = verifier.checkPassword(new char[0], "");
+      CompletableFuture<Boolean> rejected = verifier.checkPassword(new char[0], "");
+
+      assertTrue(rejected.isCompletedExceptionally());
+      try {
+        rejected.get();
+        fail();
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+      }
+      assertEquals(1, verifier.metrics().getRejected());
+      assertEquals(1, verifier.metrics().getQueueDepth());
+
+      release.countDown();
+      assertTrue(running.get(5, TimeUnit.SECONDS));
+      assertTrue(queued.get(5, TimeUnit.SECONDS));
+      assertTrue(verifier.metrics().getQueueWaitNanos() > 0);
+    }
+  }
+
+  @Test
+  public void givenInvalidToken_whenCheckedAsync_thenFutureFailsWithIllegalArgument() throws Exception {
+    try (AsyncPasswordVerifier verifier = new AsyncPasswordVerifier(new PBKDF2Hasher(4), 1, 1)) {
+      verifier.checkPassword("x".toCharArray(), "not-a-token").get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  @Test
+  public void givenCheckThrowingError_whenCheckedAsync_thenFutureCompletesExceptionally() throws Exception {
+    try (AsyncPasswordVerifier verifier = new AsyncPasswordVerifier((password, token) -> {
+      throw new StackOverflowError("畸形令牌");
+    }, 1, 1)) {
+      try {
+        verifier.checkPassword("x".toCharArray(), "token").get(5, TimeUnit.SECONDS);
+        fail("应当以 StackOverflowError 结束");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof StackOverflowError);
+      }
+      assertEquals(1, verifier.metrics().getCompleted());
+      // 抛出 Error 的工作线程被替换后仍然可以继续校验
+      verifier.checkPassword("x".toCharArray(), "token").handle((matches, error) -> error).get(5, TimeUnit.SECONDS);
+    }
+  }
+}
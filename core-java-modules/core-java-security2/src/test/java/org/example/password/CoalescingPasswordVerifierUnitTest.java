@@ -0,0 +1,115 @@
+package org.example.password;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CoalescingPasswordVerifierUnitTest {
+
+  @Test
+  public void givenConcurrentIdenticalChecks_whenVerified_thenComputedOnce() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<Boolean> computation = new CompletableFuture<>();
+    CoalescingPasswordVerifier verifier = new CoalescingPasswordVerifier((password, token) -> {
+      calls.incrementAndGet();
+      return computation;
+    });
+
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      results.add(verifier.checkPassword("password123".toCharArray(), "token"));
+    }
+    assertEquals(1, calls.get());
+    assertEquals(1, verifier.metrics().getInFlight());
+
+    computation.complete(true);
+    for (CompletableFuture<Boolean> result : results) {
+      assertTrue(result.get(5, TimeUnit.SECONDS));
+    }
+    CoalescingPasswordVerifier.Metrics metrics = verifier.metrics();
+    assertEquals(10, metrics.getRequests());
+    assertEquals(1, metrics.getComputed());
+    assertEquals(9, metrics.getCoalesced());
+    assertEquals(0, metrics.getInFlight());
+  }
+
+  @Test
+  public void givenDifferentPasswordsOrTokens_whenVerifiedConcurrently_thenNotCoalesced() {
+    AtomicInteger calls = new AtomicInteger();
+    CoalescingPasswordVerifier verifier = new CoalescingPasswordVerifier((password, token) -> {
+      calls.incrementAndGet();
+      return new CompletableFuture<>();
+    });
+
+    verifier.checkPassword("password123".toCharArray(), "token");
+    verifier.checkPassword("password124".toCharArray(), "token");
+    verifier.checkPassword("password123".toCharArray(), "token2");
+    // 同样的拼接结果，但令牌和密码的切分不同
+    verifier.checkPassword("tokenp".toCharArray(), "");
+    verifier.checkPassword("p".toCharArray(), "token");
+
+    assertEquals(5, calls.get());
+    assertEquals(0, verifier.metrics().getCoalesced());
+  }
+
+  @Test
+  public void givenCompletedCheck_whenVerifiedAgain_thenRecomputed() throws Exception {
+    PBKDF2Hasher hasher = new PBKDF2Hasher(4);
+    String token = hasher.hash("password123".toCharArray());
+    CoalescingPasswordVerifier verifier = new CoalescingPasswordVerifier(hasher);
+
+    assertTrue(verifier.checkPassword("password123".toCharArray(), token).get());
+    assertTrue(verifier.checkPassword("password123".toCharArray(), token).get());
+    assertFalse(verifier.checkPassword("IamWrong".toCharArray(), token).get());
+
+    assertEquals(3, verifier.metrics().getComputed());
+    assertEquals(0, verifier.metrics().getCoalesced());
+  }
+
+  @Test
+  public void givenFailingCheck_whenCoalesced_thenAllCallersFail() throws Exception {
+    CompletableFuture<Boolean> computation = new CompletableFuture<>();
+    CoalescingPasswordVerifier verifier = new CoalescingPasswordVerifier((password, token) -> computation);
+    CompletableFuture<Boolean> first = verifier.checkPassword("x".toCharArray(), "not-a-token");
+    CompletableFuture<Boolean> second = verifier.checkPassword("x".toCharArray(), "not-a-token");
+
+    computation.completeExceptionally(new IllegalArgumentException("无效的令牌格式"));
+    for (CompletableFuture<Boolean> result : new CompletableFuture[]{first, second}) {
+      try {
+        result.get(5, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+      }
+    }
+  }
+
+  @Test
+  public void givenAsyncDelegate_whenIdenticalChecksConcurrent_thenSavedCpuReported() throws Exception {
+    PBKDF2Hasher hasher = new PBKDF2Hasher(10);
+    String token = hasher.hash("password123".toCharArray());
+    try (AsyncPasswordVerifier async = new AsyncPasswordVerifier(hasher, 1, 4)) {
+      CoalescingPasswordVerifier verifier = new CoalescingPasswordVerifier(async);
+      List<CompletableFuture<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        results.add(verifier.checkPassword("password123".toCharArray(), token));
+      }
+      for (CompletableFuture<Boolean> result : results) {
+        assertTrue(result.get(5, TimeUnit.SECONDS));
+      }
+      // 20 个相同请求没有超出队列长度 4，也没有被拒绝
+      assertEquals(0, async.metrics().getRejected());
+      CoalescingPasswordVerifier.Metrics metrics = verifier.metrics();
+      assertEquals(20, metrics.getComputed() + metrics.getCoalesced());
+      assertTrue(metrics.getCoalesced() > 0);
+      assertTrue(metrics.getEstimatedCpuSavedMillis() > 0);
+    }
+  }
+}
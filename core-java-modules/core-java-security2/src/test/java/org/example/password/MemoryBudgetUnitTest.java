@@ -0,0 +1,95 @@
+package org.example.password;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MemoryBudgetUnitTest {
+
+  @Test
+  public void givenBudgetForTwoTasks_whenManyTasksRun_thenAtMostTwoRunConcurrently() throws Exception {
+    MemoryBudget budget = new MemoryBudget(3000, Duration.ofSeconds(10));
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(executor.submit(() -> budget.run(1024, () -> {
+          peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(5);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          running.decrementAndGet();
+          return 1;
+        })));
+      }
+      for (Future<Integer> future : futures) {
+        assertEquals(Integer.valueOf(1), future.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(peak.get() <= 2);
+    assertEquals(3000, budget.getAvailableKiB());
+  }
+
+  @Test
+  public void givenExhaustedBudget_whenWaitExceedsMaxWait_thenRejected() throws Exception {
+    MemoryBudget budget = new MemoryBudget(1024, Duration.ofMillis(50));
+    CountDownLatch holding = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread holder = new Thread(() -> budget.run(1024, () -> {
+      holding.countDown();
+      try {
+        return release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }));
+    holder.start();
+    holding.await(5, TimeUnit.SECONDS);
+
+    try {
+      budget.run(1, () -> true);
+      fail();
+    } catch (RejectedExecutionException expected) {
+      assertEquals(1, budget.getRejected());
+    } finally {
+      release.countDown();
+      holder.join();
+    }
+    assertTrue(budget.run(1024, () -> true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void givenRequestLargerThanBudget_whenRun_thenIllegalArgument() {
+    new MemoryBudget(1024, Duration.ofSeconds(1)).run(1025, () -> true);
+  }
+
+  @Test
+  public void givenTaskThrows_whenRun_thenPermitsReleased() {
+    MemoryBudget budget = new MemoryBudget(1024, Duration.ofSeconds(1));
+    try {
+      budget.run(512, () -> {
+        throw new IllegalStateException("boom");
+      });
+      fail();
+    } catch (IllegalStateException expected) {
+      assertEquals(1024, budget.getAvailableKiB());
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package org.example.password;
+
+import org.bouncycastle.crypto.generators.SCrypt;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+public class MemoryHardHasherUnitTest {
+
+  private final MemoryBudget budget = new MemoryBudget(16 * 1024, Duration.ofSeconds(5));
+
+  @Test
+  public void givenArgon2idHasher_whenHashedAndChecked_thenOnlyCorrectPasswordMatches() {
+    MemoryHardHasher hasher = MemoryHardHasher.argon2id(1024, 2, 1, budget);
+
+    String token = hasher.hash("password123".toCharArray());
+
+    assertTrue(token, token.matches("\\$argon2id\\$v=19\\$m=1024,t=2,p=1\\$[A-Za-z0-9+/]{22}\\$[A-Za-z0-9+/]{43}"));
+    assertTrue(hasher.checkPassword("password123".toCharArray(), token));
+    assertFalse(hasher.checkPassword("IamWrong".toCharArray(), token));
+    assertNotEquals(token, hasher.hash("password123".toCharArray()));
+  }
+
+  @Test
+  public void givenScryptHasher_whenHashed_thenTokenMatchesBouncyCastleScrypt() {
+    MemoryHardHasher hasher = MemoryHardHasher.scrypt(10, 8, 1, budget);
+
+    String token = hasher.hash("密码123".toCharArray());
+
+    String[] parts = token.split("\\$");
+    assertEquals("scrypt", parts[1]);
+    assertEquals("ln=10,r=8,p=1", parts[2]);
+    byte[] salt = Base64.getDecoder().decode(parts[3]);
+    byte[] expected = SCrypt.generate("密码123".getBytes(StandardCharsets.UTF_8), salt, 1024, 8, 1, 32);
+    assertArrayEquals(expected, Base64.getDecoder().decode(parts[4]));
+    assertTrue(hasher.checkPassword("密码123".toCharArray(), token));
+    assertFalse(hasher.checkPassword("密码124".toCharArray(), token));
+  }
+
+  @Test
+  public void givenTokenWithOtherParameters_whenChecked_thenVerifiedWithTokenParameters() {
+    String argon2Token = MemoryHardHasher.argon2id(512, 1, 2, budget).hash("password123".toCharArray());
+    String scryptToken = MemoryHardHasher.scrypt(9, 4, 2, budget).hash("password123".toCharArray());
+    MemoryHardHasher current = MemoryHardHasher.argon2id(2048, 3, 1, budget);
+
+    assertTrue(current.checkPassword("password123".toCharArray(), argon2Token));
+    assertTrue(current.checkPassword("password123".toCharArray(), scryptToken));
+  }
+
+  @Test
+  public void givenTokenDemandingMoreThanBudget_whenChecked_thenRejected() {
+    MemoryHardHasher hasher = MemoryHardHasher.argon2id(1024, 1, 1, budget);
+    String token = hasher.hash("password123".toCharArray()).replace("m=1024", "m=1048576");
+
+    try {
+      hasher.checkPassword("password123".toCharArray(), token);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("超出预算"));
+    }
+  }
+
+  @Test
+  public void givenInvalidParametersOrToken_whenUsed_thenIllegalArgument() {
+    for (Runnable invalid : Arrays.<Runnable>asList(
+        () -> MemoryHardHasher.argon2id(4, 1, 1, budget),
+        () -> MemoryHardHasher.scrypt(0, 8, 1, budget),
+        () -> MemoryHardHasher.scrypt(20, 8, 1, budget),
+        () -> MemoryHardHasher.argon2id(1024, 1, 1, budget).checkPassword("x".toCharArray(), "$31$16$abc"))) {
+      try {
+        invalid.run();
+        fail();
+      } catch (IllegalArgumentException expected) {
+        // 参数非法、超出预算或令牌格式错误
+      }
+    }
+  }
+
+  @Test
+  public void givenParameters_whenEstimatingMemory_thenMatchesAlgorithmFootprint() {
+    assertEquals(65536 + 4096, MemoryHardHasher.memoryKiB(MemoryHardHasher.Algorithm.ARGON2ID, 65536, 3, 1));
+    // 128 * r * N = 16 MiB，另加 p 个 128 * r 字节的块
+    assertEquals(16 * 1024 + 1, MemoryHardHasher.memoryKiB(MemoryHardHasher.Algorithm.SCRYPT, 14, 8, 1));
+  }
+}
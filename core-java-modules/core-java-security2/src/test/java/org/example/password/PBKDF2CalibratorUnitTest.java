@@ -0,0 +1,77 @@
+package org.example.password;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class PBKDF2CalibratorUnitTest {
+
+  /**
+   * 模拟每次迭代 1 微秒的机器：成本 c 的一次校验让时钟前进 2^c 微秒。
+   */
+  private static PBKDF2Calibrator simulated(Duration budget, AtomicLong clock) {
+    return new PBKDF2Calibrator(budget, 1, 5, Duration.ofMillis(300),
+        cost -> () -> clock.addAndGet(TimeUnit.MICROSECONDS.toNanos(1L << cost)), clock::get);
+  }
+
+  @Test
+  public void givenSimulatedClock_whenCalibrated_thenLargestCostWithinBudgetIsChosen() {
+    Duration budget = Duration.ofMillis(20);
+
+    PBKDF2Calibrator.Result result = simulated(budget, new AtomicLong()).calibrate();
+
+    // 2^14 微秒 = 16.4 ms <= 20 ms < 2^15 微秒 = 32.8 ms
+    assertEquals(result.toString(), 14, result.getCost());
+    assertTrue(result.isWithinBudget());
+    assertEquals(16.384, result.getMeasurement().getP95Millis(), 1e-9);
+    boolean measuredNext = false;
+    for (PBKDF2Calibrator.Measurement measurement : result.getMeasurements()) {
+      if (measurement.getCost() == result.getCost() + 1) {
+        measuredNext = true;
+        assertTrue(measurement.toString(), measurement.getP95Millis() > budget.toMillis());
+      }
+    }
+    assertTrue(result.getMeasurements().toString(), measuredNext);
+  }
+
+  @Test
+  public void givenIncreasingBudgets_whenCalibrated_thenCostIsMonotonicAndClamped() {
+    int previous = PBKDF2Calibrator.MIN_COST;
+    for (long millis : new long[]{1, 5, 20, 100, 1000, 10_000_000}) {
+      PBKDF2Calibrator.Result result = simulated(Duration.ofMillis(millis), new AtomicLong()).calibrate();
+
+      assertTrue(result.toString(), result.getCost() >= previous);
+      assertTrue(result.toString(), result.getCost() <= PBKDF2Calibrator.MAX_COST);
+      previous = result.getCost();
+    }
+    assertEquals(PBKDF2Calibrator.MAX_COST, previous);
+  }
+
+  @Test
+  public void givenBudgetBelowMinimumCost_whenCalibrated_thenMinimumReportedOutsideBudget() {
+    PBKDF2Calibrator.Result result = simulated(Duration.ofMillis(1), new AtomicLong()).calibrate();
+
+    assertEquals(PBKDF2Calibrator.MIN_COST, result.getCost());
+    assertFalse(result.isWithinBudget());
+  }
+
+  @Test
+  public void givenRealHasher_whenCalibrated_thenUsableCostReturned() {
+    PBKDF2Calibrator.Result result = new PBKDF2Calibrator(Duration.ofMillis(20), 2, 5, Duration.ofMillis(300)).calibrate();
+
+    assertTrue(result.toString(), result.getCost() >= PBKDF2Calibrator.MIN_COST);
+    assertTrue(result.toString(), result.getCost() <= PBKDF2Calibrator.MAX_COST);
+    assertFalse(result.getMeasurements().isEmpty());
+    assertTrue(result.getLoginsPerSecondPerCore() > 0);
+    assertTrue(result.newHasher().checkPassword("x".toCharArray(), result.newHasher().hash("x".toCharArray())));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void givenZeroBudget_whenCreated_thenRejected() {
+    new PBKDF2Calibrator(Duration.ZERO, 1);
+  }
+}
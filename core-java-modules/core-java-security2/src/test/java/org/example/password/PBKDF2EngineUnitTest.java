@@ -0,0 +1,95 @@
+package org.example.password;
+
+import org.example.hash.HexCodec;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import static org.junit.Assert.*;
+
+public class PBKDF2EngineUnitTest {
+
+  @Test
+  public void givenRfc6070Vectors_whenDerivingWithHmacSha1_thenMatches() {
+    assertVector(PBKDF2Engine.Prf.HMAC_SHA1, "password", "salt", 1, "0c60c80f961f0e71f3a9b524af6012062fe037a6");
+    assertVector(PBKDF2Engine.Prf.HMAC_SHA1, "password", "salt", 2, "ea6c014dc72d6f8ccd1ed92ace1d41f0d8de8957");
+    assertVector(PBKDF2Engine.Prf.HMAC_SHA1, "password", "salt", 4096, "4b007901b765489abead49d926f721d065a429c1");
+    assertVector(PBKDF2Engine.Prf.HMAC_SHA1, "passwordPASSWORDpassword", "saltSALTsaltSALTsaltSALTsaltSALTsalt", 4096,
+        "3d2eec4fe41c849b80c8d83662c0e44a8b291a964cf2f07038");
+    assertVector(PBKDF2Engine.Prf.HMAC_SHA1, "pass\0word", "sa\0lt", 4096, "56fa6aa75548099dcc37d7f03425e0c3");
+  }
+
+  @Test
+  public void givenRfc7914Vector_whenDerivingWithHmacSha256_thenMatches() {
+    assertVector(PBKDF2Engine.Prf.HMAC_SHA256, "passwd", "salt", 1,
+        "55ac046e56e3089fec1691c22544b605f94185216dde0465e68b9d57c20dacbc"
+            + "49ca9cccf179b645991664b39d77ef317c71b845b1e30bd509112041d3a19783");
+  }
+
+  @Test
+  public void givenRandomInputs_whenDeriving_thenEqualsSecretKeyFactory() throws Exception {
+    Random random = new Random(42);
+    String[] passwords = {"p", "密码-пароль-🔑", repeat('x', 64), repeat('y', 65), repeat('长', 100)};
+    for (PBKDF2Engine.Backend backend : PBKDF2Engine.Backend.values()) {
+      for (PBKDF2Engine.Prf prf : PBKDF2Engine.Prf.values()) {
+        assertEqualsJca(random, backend, prf, passwords);
+      }
+    }
+  }
+
+  @Test
+  public void givenTokenFromHasher_whenCheckedWithJca_thenMatches() throws Exception {
+    char[] password = "password123".toCharArray();
+    String token = new PBKDF2Hasher(8).hash(password);
+    byte[] hash = Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('$') + 1));
+    byte[] salt = Arrays.copyOfRange(hash, 0, 16);
+    byte[] expected = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1")
+        .generateSecret(new PBEKeySpec(password, salt, 1 << 8, 128)).getEncoded();
+
+    assertArrayEquals(expected, Arrays.copyOfRange(hash, 16, 32));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void givenZeroIterations_whenDeriving_thenThrows() {
+    PBKDF2Engine.derive(PBKDF2Engine.Prf.HMAC_SHA256, new byte[]{1}, new byte[]{2}, 0, 32);
+  }
+
+  private static void assertEqualsJca(Random random, PBKDF2Engine.Backend backend, PBKDF2Engine.Prf prf,
+                                      String[] passwords) throws Exception {
+    String algorithm = prf == PBKDF2Engine.Prf.HMAC_SHA1 ? "PBKDF2WithHmacSHA1" : "PBKDF2WithHmacSHA256";
+    SecretKeyFactory factory = SecretKeyFactory.getInstance(algorithm);
+    for (String password : passwords) {
+      byte[] salt = new byte[1 + random.nextInt(40)];
+      random.nextBytes(salt);
+      int iterations = 1 + random.nextInt(300);
+      int keyLength = 1 + random.nextInt(100);
+      byte[] expected = factory.generateSecret(
+          new PBEKeySpec(password.toCharArray(), salt, iterations, keyLength * 8)).getEncoded();
+      byte[] actual = PBKDF2Engine.derive(backend, prf, password.toCharArray(), salt, iterations, keyLength);
+      assertArrayEquals(backend + " " + prf + " " + password + " " + iterations + " " + keyLength, expected, actual);
+    }
+  }
+
+  private static void assertVector(PBKDF2Engine.Prf prf, String password, String salt, int iterations, String hex) {
+    int keyLength = hex.length() / 2;
+    for (PBKDF2Engine.Backend backend : PBKDF2Engine.Backend.values()) {
+      byte[] actual = PBKDF2Engine.derive(backend, prf, password.getBytes(StandardCharsets.UTF_8),
+          salt.getBytes(StandardCharsets.UTF_8), iterations, keyLength);
+      assertEquals(backend.toString(), hex, HexCodec.encodeToString(actual));
+    }
+  }
+
+  private static String repeat(char c, int count) {
+    StringBuilder builder = new StringBuilder(count);
+    for (int i = 0; i < count; i++) {
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+}
@@ -1,9 +1,14 @@
 package org.example.password;
 
+import org.example.hash.HexCodec;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import static org.junit.Assert.*;
 
@@ -67,4 +72,72 @@ public class SHA512HasherUnitTest {
 
     assertFalse(hasher.checkPassword(originalHash, "password124", salt));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void givenUnicodePassword_whenHashedAsBytes_checkMatchesSha512OfSaltAndUtf8() throws Exception {
+    byte[] salt = new byte[16];
+    secureRandom.nextBytes(salt);
+
+    for (String password : new String[]{"password", "密码-пароль-🔑", "lone\uD800surrogate", ""}) {
+      MessageDigest md = MessageDigest.getInstance("SHA-512");
+      md.update(salt);
+      byte[] expected = md.digest(password.getBytes(StandardCharsets.UTF_8));
+
+      byte[] hash = hasher.hash(password.toCharArray(), salt);
+
+      assertArrayEquals(expected, hash);
+      assertEquals(SHA512Hasher.HASH_LENGTH, hash.length);
+      assertArrayEquals(hash, HexCodec.decode(hasher.hash(password, salt)));
+    }
+  }
+
+  @Test
+  public void givenRawHash_whenAttemptChecked_checkOnlyCorrectPasswordSucceeds() throws Exception {
+    byte[] salt = new byte[16];
+    secureRandom.nextBytes(salt);
+
+    byte[] hash = hasher.hash("password123".toCharArray(), salt);
+
+    assertTrue(hasher.checkPassword(hash, "password123".toCharArray(), salt));
+    assertFalse(hasher.checkPassword(hash, "password124".toCharArray(), salt));
+    assertFalse(hasher.checkPassword(new byte[32], "password123".toCharArray(), salt));
+  }
+
+  @Test
+  public void givenMalformedStoredHash_whenAttemptChecked_checkAuthenticationFails() throws Exception {
+    byte[] salt = new byte[16];
+    String hash = hasher.hash("password123", salt);
+
+    assertFalse(hasher.checkPassword(hash.substring(2), "password123", salt));
+    assertFalse(hasher.checkPassword("zz" + hash.substring(2), "password123", salt));
+    assertTrue(hasher.checkPassword(hash.toUpperCase(), "password123", salt));
+  }
+
+  @Test
+  public void givenManyRecords_whenCheckedInBatch_checkMatchingRecordsReported() throws Exception {
+    int count = 10_000;
+    byte[][] hashes = new byte[count][];
+    char[][] attempts = new char[count][];
+    byte[][] salts = new byte[count][];
+    BitSet expected = new BitSet();
+    for (int i = 0; i < count; i++) {
+      salts[i] = new byte[16];
+      secureRandom.nextBytes(salts[i]);
+      hashes[i] = hasher.hash(("password" + i).toCharArray(), salts[i]);
+      boolean match = i % 3 == 0;
+      attempts[i] = (match ? "password" + i : "123456").toCharArray();
+      if (match) {
+        expected.set(i);
+      }
+    }
+
+    assertEquals(expected, hasher.checkPasswords(hashes, attempts, salts));
+    assertEquals(expected.get(0, 10), hasher.checkPasswords(
+        Arrays.copyOf(hashes, 10), Arrays.copyOf(attempts, 10), Arrays.copyOf(salts, 10)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void givenMismatchedBatchArrays_whenChecked_thenThrows() {
+    hasher.checkPasswords(new byte[2][], new char[1][], new byte[2][]);
+  }
+}
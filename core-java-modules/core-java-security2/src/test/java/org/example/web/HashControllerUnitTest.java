@@ -0,0 +1,61 @@
+package org.example.web;
+
+import org.example.hash.Keccak256Hashing;
+import org.example.hash.SHA256Hashing;
+import org.example.hash.SHA3Hashing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(HashController.class)
+public class HashControllerUnitTest {
+
+    private static final String BODY = "abc123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void givenBody_whenSha256Requested_thenMatchesStringApi() throws Exception {
+        mockMvc.perform(post("/hash/sha-256").content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.algorithm").value("SHA-256"))
+                .andExpect(jsonPath("$.bytes").value(BODY.length()))
+                .andExpect(jsonPath("$.hash").value(SHA256Hashing.HashWithJavaMessageDigest(BODY)));
+    }
+
+    @Test
+    public void givenBody_whenSha3AndKeccakRequested_thenMatchesStringApi() throws Exception {
+        mockMvc.perform(post("/hash/SHA3-256").content(BODY))
+                .andExpect(jsonPath("$.hash").value(SHA3Hashing.hashWithJavaMessageDigest(BODY)));
+        mockMvc.perform(post("/hash/keccak-256").content(BODY))
+                .andExpect(jsonPath("$.hash").value(Keccak256Hashing.hashWithJavaMessageDigest(BODY)));
+    }
+
+    @Test
+    public void givenBodyLargerThanChunk_whenCrc32Requested_thenMatchesCrc32() throws Exception {
+        byte[] body = new byte[3 * HashController.CHUNK_SIZE + 17];
+        Arrays.fill(body, (byte) 7);
+        CRC32 crc32 = new CRC32();
+        crc32.update(body);
+
+        mockMvc.perform(post("/hash/crc32").content(body))
+                .andExpect(jsonPath("$.bytes").value(body.length))
+                .andExpect(jsonPath("$.hash").value(String.format("%08x", crc32.getValue())));
+    }
+
+    @Test
+    public void givenUnknownAlgorithm_whenRequested_thenNotFound() throws Exception {
+        mockMvc.perform(post("/hash/md4").content(BODY))
+                .andExpect(status().isNotFound());
+    }
+
+}